@@ -39,6 +39,9 @@ android {
 }
 
 dependencies {
+    // MCT7 timer (plain JVM module; MCT7Android adapts it to Handler/Looper)
+    implementation(project(":mct7"))
+
     implementation(libs.androidx.core.ktx)
     implementation(libs.androidx.appcompat)
     implementation(libs.material)
@@ -0,0 +1,95 @@
+package com.guy.class26a_ands_2
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.guy.mct7.MCT7
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.File
+import java.lang.ref.Reference
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.math.abs
+
+/**
+ * Instrumented measurement of MCT7 tick jitter and thread wakeups per engine.
+ *
+ * Results go to logcat (tag "MCT7Jitter"), e.g.:
+ *   adb logcat -s MCT7Jitter
+ *
+ * Wakeups are approximated by the process-wide voluntary context switches
+ * (/proc/self/task/<tid>/status), which count every time a thread blocks and is woken again.
+ */
+@RunWith(AndroidJUnit4::class)
+class MCT7JitterTest {
+
+    companion object {
+        private const val TAG = "MCT7Jitter"
+        private const val TICKS = 200
+        private const val INTERVAL_MS = 10L
+    }
+
+    @After
+    fun restoreDefaultEngine() {
+        MCT7.shutdown()
+        MCT7Android.init()
+    }
+
+    @Test
+    fun executorEngine() = measure(MCT7Android.Mode.EXECUTOR)
+
+    @Test
+    fun timingWheelEngine() = measure(MCT7Android.Mode.TIMING_WHEEL)
+
+    @Test
+    fun mainLooperEngine() = measure(MCT7Android.Mode.MAIN_LOOPER)
+
+    private fun measure(mode: MCT7Android.Mode) {
+        MCT7.shutdown()
+        MCT7Android.init(mode)
+
+        val tickTimes = LongArray(TICKS)
+        var index = 0
+        val done = CountDownLatch(1)
+        val ticker = object : MCT7.CycleTicker {
+            override fun onTick(remainingTicks: Int) {
+                tickTimes[index++] = SystemClock.uptimeMillis()
+            }
+
+            override fun onComplete() {
+                done.countDown()
+            }
+        }
+
+        val switchesBefore = voluntaryContextSwitches()
+        MCT7.get().cycle(TICKS, INTERVAL_MS, ticker)
+        assertTrue("Ticks did not complete", done.await(TICKS * INTERVAL_MS * 5, TimeUnit.MILLISECONDS))
+        val switches = voluntaryContextSwitches() - switchesBefore
+        Reference.reachabilityFence(ticker) // MCT7 only holds the ticker weakly
+
+        var totalJitter = 0L
+        var maxJitter = 0L
+        for (i in 1 until TICKS) {
+            val jitter = abs(tickTimes[i] - tickTimes[i - 1] - INTERVAL_MS)
+            totalJitter += jitter
+            maxJitter = maxOf(maxJitter, jitter)
+        }
+
+        Log.i(TAG, "$mode: mean jitter %.2f ms, max jitter $maxJitter ms, %.2f wakeups/tick".format(
+            totalJitter.toDouble() / (TICKS - 1),
+            switches.toDouble() / TICKS
+        ))
+        assertEquals(TICKS, index)
+    }
+
+    private fun voluntaryContextSwitches(): Long {
+        return File("/proc/self/task").listFiles().orEmpty().sumOf { task ->
+            File(task, "status").takeIf { it.canRead() }?.readLines()
+                ?.firstOrNull { it.startsWith("voluntary_ctxt_switches") }
+                ?.substringAfter(':')?.trim()?.toLongOrNull() ?: 0L
+        }
+    }
+}
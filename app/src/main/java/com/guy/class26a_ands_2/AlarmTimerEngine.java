@@ -0,0 +1,243 @@
+package com.guy.class26a_ands_2;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.guy.mct7.TimerEngine;
+
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MCT7 engine on AlarmManager, for waits that must survive Doze and app standby.
+ *
+ * WHY?
+ * - The executor engines' threads freeze in Doze, and their System.nanoTime deadlines
+ *   stop while the CPU is suspended: a 10-minute delay can take hours, or fire in a burst.
+ * - Alarms use SystemClock.elapsedRealtime (counts deep sleep) and wake the device.
+ *
+ * HOW IT WORKS:
+ * - Commands wait in one deadline-ordered queue; only the EARLIEST is registered with
+ *   AlarmManager, as a single ELAPSED_REALTIME_WAKEUP alarm that every re-arm replaces
+ *   (same PendingIntent). However many tasks use the tier, one alarm is set at a time.
+ * - The alarm is re-registered only when the earliest deadline changes.
+ * - When it fires, every due command runs, periodic ones are re-queued one period after
+ *   their run (fixed delay), and the alarm moves to the next deadline.
+ *
+ * setExactAndAllowWhileIdle when exact alarms are permitted, setAndAllowWhileIdle otherwise.
+ * Either way the system rate-limits allow-while-idle alarms in Doze, so a short interval
+ * stretches there - still far better than not firing at all.
+ *
+ * Due commands run on the engine's own background thread, not in the receiver's
+ * onReceive on the main thread; from there MCT7 delivers each tick to its task's target
+ * as on any engine. The receiver holds the broadcast open (goAsync) until they finish,
+ * so the device stays awake for them. The thread exits when idle.
+ */
+public final class AlarmTimerEngine implements TimerEngine {
+
+    private static final String TAG = "AlarmTimerEngine";
+    private static final String ACTION_ALARM = "com.guy.class26a_ands_2.action.MCT7_ALARM";
+    private static final long NOT_ARMED = Long.MIN_VALUE;
+    private static final long IDLE_TIMEOUT_MS = 30_000;
+
+    // Way back from the manifest receiver to the live engine; null in a fresh process
+    private static volatile AlarmTimerEngine active;
+
+    private final AlarmManager alarmManager;
+    private final PendingIntent alarmIntent;
+    // One thread at most, started per alarm and retired when idle: alarms are minutes apart
+    private final ThreadPoolExecutor runner = new ThreadPoolExecutor(
+            0, 1, IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            r -> new Thread(r, "MCT7-Alarm"));
+    // Guarded by this
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private long armedAtMs = NOT_ARMED;
+    private long sequence;
+    private boolean firing; // Periodic re-adds during runDue() re-arm once, at the end
+
+    AlarmTimerEngine(Context context) {
+        Context app = context.getApplicationContext();
+        this.alarmManager = app.getSystemService(AlarmManager.class);
+        Intent intent = new Intent(app, Receiver.class).setAction(ACTION_ALARM);
+        this.alarmIntent = PendingIntent.getBroadcast(app, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    @Override
+    public Handle schedule(Runnable command, long delayMs) {
+        return add(new Entry(command, 0), delayMs);
+    }
+
+    @Override
+    public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+        if (delayMs <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delayMs);
+        }
+        return add(new Entry(command, delayMs), initialDelayMs);
+    }
+
+    @Override
+    public synchronized int pendingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        queue.clear();
+        rearm();
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    private synchronized Entry add(Entry entry, long delayMs) {
+        active = this;
+        entry.deadlineMs = SystemClock.elapsedRealtime() + Math.max(0, delayMs);
+        entry.sequence = sequence++;
+        queue.add(entry);
+        rearm();
+        return entry;
+    }
+
+    /**
+     * Point the single alarm at the earliest deadline, or cancel it. Caller holds the lock.
+     */
+    private void rearm() {
+        if (firing) {
+            return;
+        }
+        Entry head = queue.peek();
+        if (head == null) {
+            if (armedAtMs != NOT_ARMED) {
+                alarmManager.cancel(alarmIntent);
+                armedAtMs = NOT_ARMED;
+            }
+            return;
+        }
+        if (head.deadlineMs == armedAtMs) {
+            return; // Already registered
+        }
+        armedAtMs = head.deadlineMs;
+        if (canScheduleExact()) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, armedAtMs, alarmIntent);
+        } else {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, armedAtMs, alarmIntent);
+        }
+    }
+
+    private boolean canScheduleExact() {
+        // SCHEDULE_EXACT_ALARM can be revoked by the user on Android 12+
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms();
+    }
+
+    /**
+     * Main thread: the alarm went off. Runs the due commands on the runner thread,
+     * then calls onDone.
+     */
+    private void onAlarm(Runnable onDone) {
+        runner.execute(() -> {
+            try {
+                runDue();
+            } finally {
+                onDone.run();
+            }
+        });
+    }
+
+    /**
+     * Runner thread: run every due command, re-queue periodic ones and re-arm.
+     */
+    private void runDue() {
+        long nowMs = SystemClock.elapsedRealtime();
+        ArrayList<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            armedAtMs = NOT_ARMED; // Consumed
+            firing = true;
+            while (!queue.isEmpty() && queue.peek().deadlineMs <= nowMs) {
+                due.add(queue.poll());
+            }
+        }
+
+        try {
+            for (Entry entry : due) {
+                if (entry.cancelled) {
+                    continue;
+                }
+                try {
+                    entry.command.run();
+                } catch (RuntimeException e) {
+                    // Same contract as the other engines: a failing periodic command stops repeating,
+                    // and it must not take the rest of this alarm's commands down with it
+                    entry.cancelled = true;
+                    Log.e(TAG, "Alarm command failed", e);
+                    continue;
+                }
+                if (entry.periodMs > 0 && !entry.cancelled) {
+                    add(entry, entry.periodMs); // Fixed delay: measured from the END of this run
+                }
+            }
+        } finally {
+            synchronized (this) {
+                firing = false;
+                rearm();
+            }
+        }
+    }
+
+    // ==================== Entry ====================
+
+    private final class Entry implements Handle, Comparable<Entry> {
+        final Runnable command;
+        final long periodMs; // 0 for one-shot commands
+        long deadlineMs;     // elapsedRealtime
+        long sequence;
+        volatile boolean cancelled;
+
+        Entry(Runnable command, long periodMs) {
+            this.command = command;
+            this.periodMs = periodMs;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (AlarmTimerEngine.this) {
+                cancelled = true;
+                if (queue.remove(this)) {
+                    rearm(); // Moves the alarm if this was the earliest, cancels it if it was the last
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = Long.compare(deadlineMs, other.deadlineMs);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // ==================== Receiver ====================
+
+    /**
+     * Manifest receiver for the alarm's PendingIntent.
+     */
+    public static final class Receiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            AlarmTimerEngine engine = active;
+            if (engine != null) {
+                PendingResult result = goAsync(); // Keep the wakeup until the commands have run
+                engine.onAlarm(result::finish);
+            }
+            // else: the process was restarted and MCT7's tasks went with it - nothing to run
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.guy.class26a_ands_2
 
 import android.app.Application
+import com.guy.mct7.MCT7
 
 class App : Application() {
 
@@ -8,7 +9,12 @@ class App : Application() {
         super.onCreate()
 
         // Initialize timer helper
-        MCT7.init()
+        MCT7Android.init()
+        // Heartbeat and long delays keep firing in Doze (AlarmManager instead of frozen threads)
+        MCT7Android.enableAlarmTier(this)
+        // Per-tag tick latency (see LocationService heartbeat log).
+        // A tick that reaches the main thread more than one frame late counts as overdue.
+        MCT7.get().enableMetrics(16)
 
         // Schedule periodic service monitor (checks if service crashed)
         // Note: On Android 12+, monitor can only NOTIFY user to restart,
@@ -0,0 +1,161 @@
+package com.guy.class26a_ands_2
+
+import java.util.concurrent.locks.StampedLock
+
+/**
+ * The last [capacity] fixes, for charts, rolling speed and smoothing.
+ *
+ * WHY?
+ * - A List<LocationData> allocates an object per fix and boxes on the way to any math.
+ * - Here each field is a primitive column (struct of arrays) in a fixed ring: adding a
+ *   fix is seven array stores, reading a window is seven System.arraycopy calls.
+ *
+ * Single writer (LocationService's location thread), any number of readers. Readers
+ * never block the writer: they read optimistically and retry if a fix landed meanwhile
+ * (a seqlock). StampedLock provides it, since its validate() has the load fence that a
+ * hand-rolled volatile sequence counter would need VarHandle (API 33) for.
+ */
+class FixHistory(val capacity: Int) {
+
+    init {
+        require(capacity > 0) { "Invalid capacity: $capacity" }
+    }
+
+    private val lock = StampedLock()
+    private val latitude = DoubleArray(capacity)
+    private val longitude = DoubleArray(capacity)
+    private val accuracy = FloatArray(capacity)
+    private val speed = FloatArray(capacity)
+    private val altitude = DoubleArray(capacity)
+    private val bearing = FloatArray(capacity)
+    private val time = LongArray(capacity)
+
+    @Volatile
+    private var written = 0L // Fixes added since the last clear; the next one goes to written % capacity
+
+    /** Number of fixes held, up to [capacity]. */
+    val size: Int
+        get() = minOf(written, capacity.toLong()).toInt()
+
+    /**
+     * Writer: append a fix, overwriting the oldest once full. Allocates nothing.
+     */
+    fun add(fix: LocationRecord) {
+        val stamp = lock.writeLock()
+        try {
+            val i = (written % capacity).toInt()
+            latitude[i] = fix.latitude
+            longitude[i] = fix.longitude
+            accuracy[i] = fix.accuracy
+            speed[i] = fix.speed
+            altitude[i] = fix.altitude
+            bearing[i] = fix.bearing
+            time[i] = fix.timestamp
+            written++
+        } finally {
+            lock.unlockWrite(stamp)
+        }
+    }
+
+    fun clear() {
+        val stamp = lock.writeLock()
+        try {
+            written = 0
+        } finally {
+            lock.unlockWrite(stamp)
+        }
+    }
+
+    /**
+     * Copy the newest fixes, oldest first, into a caller-owned [window]: a consistent
+     * snapshot, never a mix of two writes. Reuse the window and nothing is allocated.
+     *
+     * @return Number of fixes copied: at most [maxCount], the window's capacity and [size]
+     */
+    fun snapshot(window: FixWindow, maxCount: Int = window.capacity): Int {
+        require(maxCount in 0..window.capacity) { "Window holds ${window.capacity}, asked for $maxCount" }
+        while (true) {
+            val stamp = lock.tryOptimisticRead()
+            if (stamp == 0L) {
+                Thread.yield() // A fix is being written: a few stores
+                continue
+            }
+            val total = written
+            val count = minOf(total, capacity.toLong(), maxCount.toLong()).toInt()
+            val first = total - count
+            copyColumns(first, count, window)
+            if (lock.validate(stamp)) {
+                window.count = count
+                window.firstSequence = first
+                return count
+            }
+        }
+    }
+
+    /**
+     * Mean speed (m/s) over the newest [lastCount] fixes, 0 with none. Reads in place, no window needed.
+     */
+    fun meanSpeed(lastCount: Int): Float {
+        while (true) {
+            val stamp = lock.tryOptimisticRead()
+            if (stamp == 0L) {
+                Thread.yield()
+                continue
+            }
+            val total = written
+            val count = minOf(total, capacity.toLong(), lastCount.toLong()).toInt()
+            var sum = 0.0
+            for (n in 0 until count) {
+                sum += speed[((total - 1 - n) % capacity).toInt()]
+            }
+            if (lock.validate(stamp)) {
+                return if (count > 0) (sum / count).toFloat() else 0f
+            }
+        }
+    }
+
+    /**
+     * Copy count fixes starting at sequence first: one or two runs per column, around the wrap.
+     * Optimistic: the caller validates afterwards.
+     */
+    private fun copyColumns(first: Long, count: Int, window: FixWindow) {
+        val start = (first % capacity).toInt()
+        val head = minOf(count, capacity - start)
+        copyRun(start, 0, head, window)
+        if (head < count) {
+            copyRun(0, head, count - head, window)
+        }
+    }
+
+    private fun copyRun(from: Int, to: Int, length: Int, window: FixWindow) {
+        System.arraycopy(latitude, from, window.latitude, to, length)
+        System.arraycopy(longitude, from, window.longitude, to, length)
+        System.arraycopy(accuracy, from, window.accuracy, to, length)
+        System.arraycopy(speed, from, window.speed, to, length)
+        System.arraycopy(altitude, from, window.altitude, to, length)
+        System.arraycopy(bearing, from, window.bearing, to, length)
+        System.arraycopy(time, from, window.time, to, length)
+    }
+}
+
+/**
+ * Reader-owned columns filled by [FixHistory.snapshot]; index 0 is the oldest fix,
+ * [count] - 1 the newest. Not thread-safe: one per reader, reused across snapshots.
+ */
+class FixWindow(val capacity: Int) {
+    val latitude = DoubleArray(capacity)
+    val longitude = DoubleArray(capacity)
+    val accuracy = FloatArray(capacity)
+    val speed = FloatArray(capacity)        // meters per second
+    val altitude = DoubleArray(capacity)
+    val bearing = FloatArray(capacity)
+    val time = LongArray(capacity)
+
+    /** Number of valid rows */
+    var count = 0
+        internal set
+
+    /** Position of row 0 in the stream of fixes added since the history was cleared */
+    var firstSequence = 0L
+        internal set
+}
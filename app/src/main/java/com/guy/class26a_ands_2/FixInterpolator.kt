@@ -0,0 +1,77 @@
+package com.guy.class26a_ands_2
+
+import kotlin.math.abs
+import kotlin.math.cos
+import kotlin.math.exp
+import kotlin.math.sin
+
+/**
+ * Smooths the displayed speed and position between location fixes (every ~5s),
+ * advanced once per display frame by a [VsyncTicker] listener.
+ *
+ * - Speed eases toward the latest fix with time constant [speedTimeConstantMs],
+ *   so it glides instead of jumping every 5 seconds.
+ * - Position is dead-reckoned from the latest fix along its bearing at its speed,
+ *   for at most [maxExtrapolationMs], so a lost fix can't run the marker away.
+ *
+ * Pure math on plain values: unit tested without Android.
+ */
+class FixInterpolator(
+    private val speedTimeConstantMs: Long = 1_000,
+    private val maxExtrapolationMs: Long = 5_000,
+) {
+    var speedKmh = 0f
+        private set
+    var latitude = 0.0
+        private set
+    var longitude = 0.0
+        private set
+
+    private var fix: LocationData? = null
+    private var fixNanos = 0L
+
+    /**
+     * A new fix arrived at [nowNanos] (System.nanoTime base, like frame times).
+     */
+    fun onFix(data: LocationData, nowNanos: Long) {
+        if (fix == null) {
+            speedKmh = data.speedKmh // Nothing to ease from
+        }
+        fix = data
+        fixNanos = nowNanos
+        latitude = data.latitude
+        longitude = data.longitude
+    }
+
+    /**
+     * Advance to the frame at [frameTimeNanos], [deltaNanos] after the previous one.
+     * @return true while the displayed values are still changing
+     */
+    fun onFrame(frameTimeNanos: Long, deltaNanos: Long): Boolean {
+        val current = fix ?: return false
+
+        val alpha = 1.0 - exp(-deltaNanos / (speedTimeConstantMs * NANOS_PER_MS))
+        speedKmh += ((current.speedKmh - speedKmh) * alpha).toFloat()
+
+        val sinceFixNanos = (frameTimeNanos - fixNanos).coerceIn(0L, maxExtrapolationMs * 1_000_000L)
+        val distanceM = current.speed * (sinceFixNanos / 1e9)
+        val bearingRad = Math.toRadians(current.bearing.toDouble())
+        latitude = current.latitude + Math.toDegrees(distanceM * cos(bearingRad) / EARTH_RADIUS_M)
+        longitude = current.longitude + Math.toDegrees(
+            distanceM * sin(bearingRad) / (EARTH_RADIUS_M * cos(Math.toRadians(current.latitude)))
+        )
+
+        val extrapolating = current.speed > 0f && frameTimeNanos - fixNanos < maxExtrapolationMs * 1_000_000L
+        return extrapolating || abs(current.speedKmh - speedKmh) > SPEED_SETTLED_KMH
+    }
+
+    fun reset() {
+        fix = null
+    }
+
+    private companion object {
+        const val EARTH_RADIUS_M = 6_371_000.0
+        const val NANOS_PER_MS = 1_000_000.0
+        const val SPEED_SETTLED_KMH = 0.05f
+    }
+}
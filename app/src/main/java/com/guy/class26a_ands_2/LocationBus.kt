@@ -0,0 +1,184 @@
+package com.guy.class26a_ands_2
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Fan-out of every fix to any number of consumers, each with its own buffer,
+ * overflow policy and dispatcher.
+ *
+ * WHY?
+ * - ServiceStateManager.locationData conflates: right for the UI, which only draws the
+ *   latest fix, but a recorder, statistics or an export must see every one.
+ * - Every subscriber reads its own channel on its own coroutine, so a slow or stuck
+ *   consumer only falls behind (or drops, per its policy) - [publish] never waits,
+ *   and the others keep receiving.
+ *
+ * A fix is snapshotted into one immutable LocationData shared by all subscribers,
+ * and only while there is at least one: with none, [publish] allocates nothing.
+ *
+ * Usage:
+ *   val recorder = ServiceStateManager.locationBus.subscribe(
+ *       "recorder", LocationBus.Overflow.UNBOUNDED, dispatcher = Dispatchers.IO
+ *   ) { fix -> dao.insert(fix) }
+ *   recorder.cancel() // When done
+ */
+class LocationBus(private val scope: CoroutineScope) {
+
+    /**
+     * What a subscriber's buffer does when its consumer can't keep up.
+     */
+    enum class Overflow {
+        /** Keep only the latest fix (the UI) */
+        CONFLATE,
+
+        /** Keep the latest `capacity` fixes, dropping the oldest; drops are counted */
+        BUFFER,
+
+        /**
+         * Lose nothing: every fix is queued until the consumer catches up. There is no
+         * backpressure - [publish] runs on the location thread and can't be made to wait
+         * without stalling every other consumer - so a consumer that never catches up
+         * grows its queue without limit. Watch [Subscription.backlog].
+         */
+        UNBOUNDED
+    }
+
+    inner class Subscription internal constructor(
+        val name: String,
+        private val overflow: Overflow,
+        capacity: Int,
+    ) {
+        private val channel = when (overflow) {
+            Overflow.CONFLATE -> Channel<LocationData>(Channel.CONFLATED)
+            Overflow.BUFFER -> Channel(capacity)
+            Overflow.UNBOUNDED -> Channel(Channel.UNLIMITED)
+        }
+        private val dropCount = AtomicLong()
+        private val queued = AtomicInteger()
+        internal lateinit var job: Job
+
+        /** Why the consumer stopped, if it threw */
+        @Volatile
+        var failure: Throwable? = null
+            private set
+
+        /** Fixes discarded by [Overflow.BUFFER] because the consumer was behind */
+        val dropped: Long
+            get() = dropCount.get()
+
+        /** Fixes waiting for the consumer */
+        val backlog: Int
+            get() = queued.get()
+
+        val isActive: Boolean
+            get() = job.isActive
+
+        /** Stop delivering; fixes still buffered are discarded. */
+        fun cancel() {
+            unsubscribe(this)
+            channel.close()
+            job.cancel()
+        }
+
+        internal fun offer(data: LocationData) {
+            when (overflow) {
+                Overflow.CONFLATE -> if (channel.trySend(data).isSuccess) queued.set(1)
+                Overflow.UNBOUNDED -> if (channel.trySend(data).isSuccess) queued.incrementAndGet()
+                Overflow.BUFFER -> {
+                    if (channel.trySend(data).isSuccess) {
+                        queued.incrementAndGet()
+                        return
+                    }
+                    // Full: make room by dropping the oldest (the consumer may have just taken it)
+                    if (channel.tryReceive().isSuccess) {
+                        dropCount.incrementAndGet()
+                        queued.decrementAndGet()
+                    }
+                    if (channel.trySend(data).isSuccess) {
+                        queued.incrementAndGet()
+                    } else {
+                        dropCount.incrementAndGet()
+                    }
+                }
+            }
+        }
+
+        internal suspend fun pump(consumer: suspend (LocationData) -> Unit) {
+            try {
+                for (data in channel) {
+                    if (overflow == Overflow.CONFLATE) queued.set(0) else queued.decrementAndGet()
+                    consumer(data)
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                failure = e // Not rethrown: an uncaught failure would reach the scope and crash the app
+                channel.close()
+            }
+        }
+    }
+
+    // Replaced as a whole on (un)subscribe, so publish() walks a stable array without an Iterator
+    @Volatile
+    private var subscribers = emptyArray<Subscription>()
+
+    /**
+     * Start delivering fixes to [consumer] on [dispatcher], buffered per [overflow].
+     * A consumer that throws ends its own subscription only (see [Subscription.failure]).
+     */
+    fun subscribe(
+        name: String,
+        overflow: Overflow,
+        capacity: Int = DEFAULT_CAPACITY,
+        dispatcher: CoroutineDispatcher,
+        consumer: suspend (LocationData) -> Unit,
+    ): Subscription {
+        require(capacity > 0) { "Invalid capacity: $capacity" }
+        val subscription = Subscription(name, overflow, capacity)
+        synchronized(this) {
+            subscribers += subscription
+        }
+        subscription.job = scope.launch(dispatcher) {
+            subscription.pump(consumer)
+        }
+        // However it ends (cancel, failure, scope cancelled before it ever ran)
+        subscription.job.invokeOnCompletion { unsubscribe(subscription) }
+        return subscription
+    }
+
+    /**
+     * Hand a fix to every subscriber. Any thread; never blocks, never waits for a consumer.
+     * The record is snapshotted, so the caller may reuse it.
+     */
+    fun publish(record: LocationRecord) {
+        val current = subscribers
+        if (current.isEmpty()) {
+            return
+        }
+        val data = record.toLocationData()
+        for (i in current.indices) {
+            current[i].offer(data)
+        }
+    }
+
+    /** Number of live subscriptions. */
+    val subscriberCount: Int
+        get() = subscribers.size
+
+    private fun unsubscribe(subscription: Subscription) {
+        synchronized(this) {
+            subscribers = subscribers.filter { it !== subscription }.toTypedArray()
+        }
+    }
+
+    companion object {
+        const val DEFAULT_CAPACITY = 64
+    }
+}
@@ -4,6 +4,7 @@ import android.location.Location
 
 /**
  * Data class to hold location information for UI display.
+ * Immutable snapshot of a [LocationRecord], made only for observers.
  */
 data class LocationData(
     val latitude: Double = 0.0,
@@ -15,23 +16,59 @@ data class LocationData(
     val bearing: Float = 0f,         // direction in degrees
     val timestamp: Long = 0L,
     val locationCount: Int = 0
-) {
-    companion object {
-        /**
-         * Create LocationData from Android Location object.
-         */
-        fun fromLocation(location: Location, count: Int): LocationData {
-            return LocationData(
-                latitude = location.latitude,
-                longitude = location.longitude,
-                accuracy = location.accuracy,
-                speed = location.speed,
-                speedKmh = location.speed * 3.6f,  // m/s to km/h
-                altitude = location.altitude,
-                bearing = location.bearing,
-                timestamp = location.time,
-                locationCount = count
-            )
-        }
+)
+
+/**
+ * Mutable, reusable record of the latest fix, for the per-fix path.
+ *
+ * One instance is overwritten in place by every fix, so steady-state tracking
+ * allocates nothing; an immutable [LocationData] is only made with [toLocationData]
+ * when a consumer (the UI) actually wants one.
+ */
+class LocationRecord {
+    var latitude = 0.0
+    var longitude = 0.0
+    var accuracy = 0f
+    var speed = 0f           // meters per second
+    var altitude = 0.0
+    var bearing = 0f
+    var timestamp = 0L
+    var locationCount = 0
+
+    val speedKmh: Float
+        get() = speed * 3.6f
+
+    fun set(location: Location, count: Int) {
+        latitude = location.latitude
+        longitude = location.longitude
+        accuracy = location.accuracy
+        speed = location.speed
+        altitude = location.altitude
+        bearing = location.bearing
+        timestamp = location.time
+        locationCount = count
+    }
+
+    fun copyFrom(other: LocationRecord) {
+        latitude = other.latitude
+        longitude = other.longitude
+        accuracy = other.accuracy
+        speed = other.speed
+        altitude = other.altitude
+        bearing = other.bearing
+        timestamp = other.timestamp
+        locationCount = other.locationCount
     }
-}
\ No newline at end of file
+
+    fun toLocationData() = LocationData(
+        latitude = latitude,
+        longitude = longitude,
+        accuracy = accuracy,
+        speed = speed,
+        speedKmh = speedKmh,
+        altitude = altitude,
+        bearing = bearing,
+        timestamp = timestamp,
+        locationCount = locationCount
+    )
+}
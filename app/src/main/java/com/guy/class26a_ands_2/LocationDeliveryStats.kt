@@ -0,0 +1,59 @@
+package com.guy.class26a_ands_2
+
+/**
+ * Counts what location delivery costs, to compare per-fix and batched delivery.
+ *
+ * - Every delivery (LocationCallback.onLocationResult) is one app wakeup.
+ *   Per-fix delivery pays one per fix; batched delivery one per batch,
+ *   so [wakeupsSaved] is the fixes that arrived inside someone else's batch.
+ * - [wakeLockHeldMs] is how long the service kept the CPU up itself.
+ *
+ * Times are passed in (elapsedRealtime on device), so it is unit tested without Android.
+ * Not thread-safe: LocationService confines it to its location thread.
+ */
+class LocationDeliveryStats {
+
+    var deliveries = 0L
+        private set
+    var fixes = 0L
+        private set
+    var largestBatch = 0
+        private set
+
+    private var wakeLockTotalMs = 0L
+    private var wakeLockSinceMs = NOT_HELD
+
+    val wakeupsSaved: Long
+        get() = fixes - deliveries
+
+    fun onDelivery(fixCount: Int) {
+        deliveries++
+        fixes += fixCount
+        largestBatch = maxOf(largestBatch, fixCount)
+    }
+
+    fun onWakeLockAcquired(nowMs: Long) {
+        if (wakeLockSinceMs == NOT_HELD) {
+            wakeLockSinceMs = nowMs
+        }
+    }
+
+    fun onWakeLockReleased(nowMs: Long) {
+        if (wakeLockSinceMs != NOT_HELD) {
+            wakeLockTotalMs += nowMs - wakeLockSinceMs
+            wakeLockSinceMs = NOT_HELD
+        }
+    }
+
+    /** Total wake-lock time, including a lock that is still held at [nowMs]. */
+    fun wakeLockHeldMs(nowMs: Long): Long =
+        wakeLockTotalMs + if (wakeLockSinceMs != NOT_HELD) nowMs - wakeLockSinceMs else 0
+
+    fun summary(nowMs: Long): String =
+        "deliveries=$deliveries fixes=$fixes largestBatch=$largestBatch " +
+                "wakeupsSaved=$wakeupsSaved wakeLockHeldMs=${wakeLockHeldMs(nowMs)}"
+
+    private companion object {
+        const val NOT_HELD = -1L
+    }
+}
@@ -0,0 +1,79 @@
+package com.guy.class26a_ands_2
+
+import kotlinx.coroutines.ExperimentalForInheritanceCoroutinesApi
+import kotlinx.coroutines.flow.FlowCollector
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.onSubscription
+
+/**
+ * Latest fix for observers, snapshotted only while someone is observing.
+ *
+ * WHY?
+ * - A LocationData per fix is garbage whenever the UI isn't collecting (screen off,
+ *   app in background) - most of a 10-hour shift.
+ * - [publish] copies the fix into one reusable record; a LocationData is created only
+ *   when there is a subscriber, or on demand: a late subscriber, or a read of
+ *   `data.value`, gets a fresh snapshot then.
+ *
+ * [data] keeps the StateFlow contract of the flow it replaced: `value` is always the
+ * latest fix and collectors start from it.
+ *
+ * [publish] and [clear] may be called from any thread.
+ */
+class LocationFeed {
+
+    private val latest = LocationRecord() // Guarded by itself, like the hasFix flag and the flow writes
+    private var stale = false // latest holds a fix _data doesn't have yet
+    private val _data = MutableStateFlow<LocationData?>(null)
+
+    /** Latest fix as an immutable snapshot, or null while there is none. */
+    val data: StateFlow<LocationData?> = LatestFix()
+
+    fun publish(record: LocationRecord) {
+        synchronized(latest) {
+            latest.copyFrom(record)
+            if (_data.subscriptionCount.value > 0) {
+                _data.value = latest.toLocationData()
+                stale = false
+            } else {
+                stale = true
+            }
+        }
+    }
+
+    fun clear() {
+        synchronized(latest) {
+            stale = false
+            _data.value = null
+        }
+    }
+
+    private fun refresh() {
+        synchronized(latest) {
+            if (stale) {
+                _data.value = latest.toLocationData()
+                stale = false
+            }
+        }
+    }
+
+    /** _data, brought up to date whenever it is read or subscribed to. */
+    @OptIn(ExperimentalForInheritanceCoroutinesApi::class)
+    private inner class LatestFix : StateFlow<LocationData?> {
+        private val refreshed = _data.onSubscription { refresh() }
+
+        override val value: LocationData?
+            get() {
+                refresh()
+                return _data.value
+            }
+
+        override val replayCache: List<LocationData?>
+            get() = listOf(value)
+
+        override suspend fun collect(collector: FlowCollector<LocationData?>): Nothing {
+            refreshed.collect(collector)
+        }
+    }
+}
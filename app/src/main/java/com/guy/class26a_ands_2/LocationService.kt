@@ -13,9 +13,12 @@ import android.graphics.BitmapFactory
 import android.graphics.Color
 import android.location.Location
 import android.os.Build
+import android.os.Handler
+import android.os.HandlerThread
 import android.os.IBinder
-import android.os.Looper
 import android.os.PowerManager
+import android.os.Process
+import android.os.SystemClock
 import android.util.Log
 import androidx.core.app.ActivityCompat
 import androidx.core.app.NotificationCompat
@@ -25,6 +28,7 @@ import com.google.android.gms.location.LocationRequest
 import com.google.android.gms.location.LocationResult
 import com.google.android.gms.location.LocationServices
 import com.google.android.gms.location.Priority
+import com.guy.mct7.MCT7
 
 
 /**
@@ -42,10 +46,19 @@ import com.google.android.gms.location.Priority
  * - Automatically chooses best location source
  *
  * DATA FLOW TO UI:
- * - Location received → LocationData created → ServiceStateManager.updateLocation()
- * - MainActivity observes ServiceStateManager.locationData StateFlow
+ * - Location received (on the service's own HandlerThread, not the main thread)
+ *   → LocationRecord overwritten → ServiceStateManager.updateLocation()
+ *   → LocationData snapshot, only while the UI observes
+ * - MainActivity observes ServiceStateManager.locationData (latest fix only)
+ * - Consumers that need every fix subscribe to ServiceStateManager.locationBus
  * - UI updates automatically when new location arrives
  *
+ * BATCHING (MyDB.setLocationBatching):
+ * - Per-fix delivery wakes the app every 2-5 seconds
+ * - With setMaxUpdateDelayMillis the hardware buffers fixes while the CPU sleeps
+ *   and delivers them together; every fix in LocationResult.locations is processed
+ * - LocationDeliveryStats logs deliveries, fixes, wakeups saved and wake-lock time
+ *
  * USAGE:
  *   LocationService.start(context)  // Start the service
  *   LocationService.pause(context)  // Pause work (keep service alive)
@@ -73,6 +86,12 @@ class LocationService : Service() {
         // Location settings
         private const val LOCATION_INTERVAL_MS = 5000L      // Request location every 5 seconds
         private const val LOCATION_MIN_INTERVAL_MS = 2000L  // Fastest update interval
+        // Batching mode (MyDB.isLocationBatching): fixes may wait this long, buffered in the
+        // location hardware while the CPU sleeps, and arrive together in one LocationResult
+        private const val LOCATION_MAX_UPDATE_DELAY_MS = 30_000L
+
+        // At most one notification rebuild per window, however fast fixes arrive
+        private const val NOTIFICATION_THROTTLE_MS = 5000L
 
         // Convenience methods for controlling the service
         fun start(context: Context) = sendCommand(context, ACTION_START)
@@ -90,9 +109,22 @@ class LocationService : Service() {
 
     // ===== Service State =====
 
-    private var currentState = ServiceState.STOPPED
-    private var notificationBuilder: NotificationCompat.Builder? = null
-    private var locationCounter = 0
+    @Volatile private var currentState = ServiceState.STOPPED // Read by the location thread
+    @Volatile private var notificationBuilder: NotificationCompat.Builder? = null
+
+    // Owns the whole per-fix pipeline (logging, LocationRecord, StateFlow, notification);
+    // only the StateFlow value reaches the main thread, through MainActivity's collector
+    private val locationThread = HandlerThread("$TAG-fixes", Process.THREAD_PRIORITY_BACKGROUND).apply { start() }
+    private val locationHandler = Handler(locationThread.looper)
+
+    // This service's MCT7 tasks: held strongly until onDestroy, however the GC feels
+    private val timers = MCT7.get().newGroup(TAG)
+    private var heartbeatTaskId = -1
+    // Per fix this is one atomic update; the notification is rebuilt on the location thread
+    private val notificationUpdates = timers.throttler(
+        "${TAG}_notification", NOTIFICATION_THROTTLE_MS,
+        MCT7.Options.builder().executeOn(MCT7Android.executor(locationThread.looper)).build()
+    ) { showLocationNotification() }
 
     // Wake lock for keeping CPU alive during work (optional for location-only)
     private var wakeLock: PowerManager.WakeLock? = null
@@ -100,7 +132,11 @@ class LocationService : Service() {
     // Location services
     private lateinit var fusedLocationClient: FusedLocationProviderClient
     private lateinit var locationCallback: LocationCallback
-    private var lastLocation: Location? = null
+    @Volatile private var batching = false
+    // Location thread only
+    private val fix = LocationRecord() // Latest fix, reused for every one
+    private var locationCounter = 0
+    private val deliveryStats = LocationDeliveryStats()
 
     // ===== Lifecycle =====
 
@@ -121,33 +157,54 @@ class LocationService : Service() {
 
         locationCallback = object : LocationCallback() {
             override fun onLocationResult(result: LocationResult) {
-                result.lastLocation?.let { location ->
-                    onLocationReceived(location)
+                // Oldest first; a batch holds every fix buffered since the last delivery
+                val locations = result.locations
+                for (i in locations.indices) { // Index loop: no Iterator per delivery
+                    onLocationReceived(locations[i])
+                }
+                deliveryStats.onDelivery(locations.size)
+                if (locations.size > 1 && Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Batch of ${locations.size}: ${deliveryStats.summary(SystemClock.elapsedRealtime())}")
                 }
             }
         }
     }
 
     /**
-     * Called when a new location is received.
+     * Called when a new location is received, on the location thread.
      * Updates ServiceStateManager which notifies all observers (like MainActivity).
      */
     private fun onLocationReceived(location: Location) {
+        if (currentState != ServiceState.RUNNING) return // Queued before updates were removed
         locationCounter++
-        lastLocation = location
+        fix.set(location, locationCounter) // Overwritten in place: nothing allocated per fix
+
+        // Strings only when someone reads them: adb shell setprop log.tag.LocationService DEBUG
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "Location #$locationCounter: ${location.latitude}, ${location.longitude} " +
+                    "(accuracy: ${location.accuracy}m, speed: ${location.speed}m/s)")
+        }
 
-        Log.d(TAG, "Location #$locationCounter: ${location.latitude}, ${location.longitude} " +
-                "(accuracy: ${location.accuracy}m, speed: ${location.speed}m/s)")
+        // Recent-fix ring: seven primitive stores, this thread is its only writer
+        ServiceStateManager.recentFixes.add(fix)
 
-        // Create LocationData and update StateFlow
-        val locationData = LocationData.fromLocation(location, locationCounter)
-        ServiceStateManager.updateLocation(locationData)
+        // Update StateFlow (a LocationData is only made while the UI observes)
+        ServiceStateManager.updateLocation(fix)
 
-        // Update notification with current location info
+        // Update notification with current location info (throttled)
+        notificationUpdates.trigger()
+    }
+
+    /**
+     * Location thread, through [notificationUpdates]: show the latest fix in the notification.
+     */
+    private fun showLocationNotification() {
+        if (currentState != ServiceState.RUNNING) return // Paused/stopped text wins
+        if (locationCounter == 0) return // No fix yet
         updateNotificationContent(
-            "Location #$locationCounter\n" +
-                    "Lat: %.6f, Lng: %.6f\n".format(location.latitude, location.longitude) +
-                    "Speed: %.1f km/h".format(location.speed * 3.6f)
+            "Location #${fix.locationCount}\n" +
+                    "Lat: %.6f, Lng: %.6f\n".format(fix.latitude, fix.longitude) +
+                    "Speed: %.1f km/h".format(fix.speedKmh)
         )
     }
 
@@ -186,9 +243,13 @@ class LocationService : Service() {
         stopLocationUpdates()
         releaseWakeLock()
         ServiceStateManager.setServiceProcessRunning(false)
-        ServiceStateManager.clearLocation()
-        MCT7.get().cancelByTag(TAG)
-        MCT7.get().cancelByTag("${TAG}_heartbeat")
+        timers.cancel()
+        // Behind any fix still queued on the location thread, so none can outlive the clear
+        locationHandler.post {
+            ServiceStateManager.clearLocation()
+            Log.d(TAG, "Location delivery (batching=$batching): ${deliveryStats.summary(SystemClock.elapsedRealtime())}")
+        }
+        locationThread.quitSafely()
         MyDB.setActualState(this, ServiceState.STOPPED)
     }
 
@@ -202,9 +263,13 @@ class LocationService : Service() {
         MyDB.setActualState(this, ServiceState.RUNNING)
         ServiceStateManager.updateState(ServiceState.RUNNING)
 
-        // Wake lock is OPTIONAL for location tracking
-        // Uncomment if you need CPU for additional processing:
-        acquireWakeLock()
+        batching = MyDB.isLocationBatching(this)
+
+        // Wake lock is OPTIONAL for location tracking, and never taken while batching:
+        // a CPU held awake can't sleep between batches, which is the whole point
+        if (!batching) {
+            acquireWakeLock()
+        }
 
         startWork()
         updateNotificationContent("Starting location tracking...")
@@ -263,6 +328,8 @@ class LocationService : Service() {
         ).apply {
             acquire()
         }
+        val acquiredAt = SystemClock.elapsedRealtime()
+        locationHandler.post { deliveryStats.onWakeLockAcquired(acquiredAt) }
         Log.d(TAG, "Wake lock acquired")
     }
 
@@ -270,6 +337,8 @@ class LocationService : Service() {
         wakeLock?.let {
             if (it.isHeld) {
                 it.release()
+                val releasedAt = SystemClock.elapsedRealtime()
+                locationHandler.post { deliveryStats.onWakeLockReleased(releasedAt) }
                 Log.d(TAG, "Wake lock released")
             }
         }
@@ -303,16 +372,20 @@ class LocationService : Service() {
         ).apply {
             setMinUpdateIntervalMillis(LOCATION_MIN_INTERVAL_MS)
             setWaitForAccurateLocation(false)  // Don't wait, start immediately
+            if (batching) {
+                setMaxUpdateDelayMillis(LOCATION_MAX_UPDATE_DELAY_MS)
+            }
         }.build()
 
         // Start updates
         fusedLocationClient.requestLocationUpdates(
             locationRequest,
             locationCallback,
-            Looper.getMainLooper()  // Callbacks on main thread
+            locationThread.looper  // Off the main thread: per-fix work can't jank the UI
         )
 
-        Log.d(TAG, "Location updates started (interval: ${LOCATION_INTERVAL_MS}ms)")
+        Log.d(TAG, "Location updates started (interval: ${LOCATION_INTERVAL_MS}ms, " +
+                "max delay: ${if (batching) LOCATION_MAX_UPDATE_DELAY_MS else 0}ms)")
     }
 
     /**
@@ -325,7 +398,6 @@ class LocationService : Service() {
 
     private fun stopWork() {
         stopLocationUpdates()
-        MCT7.get().cancelByTag(TAG)
     }
 
     /**
@@ -343,10 +415,20 @@ class LocationService : Service() {
     private fun startHeartbeat() {
         stopHeartbeat()
 
-        MCT7.get().cycle(
+        heartbeatTaskId = timers.cycle(
             MCT7.INFINITE,
             MyDB.HEARTBEAT_INTERVAL_MS,
+            0,
             "${TAG}_heartbeat",
+            MCT7.Options.builder()
+                // No tolerance: HIGH tasks only share wakeups with other HIGH tasks, and there are none
+                // SharedPreferences write - keep it off the main thread
+                .onWorkerThread()
+                // Own worker lane: UI tickers piling up can't push it past the timeout
+                .priority(MCT7.Priority.HIGH)
+                // Not allowWhileIdle(): Doze rate-limits while-idle alarms to minutes apart,
+                // so the alarm tier couldn't keep a 10 s heartbeat fresh either
+                .build(),
             object : MCT7.CycleTicker {
                 override fun onTick(repeatsRemaining: Int) {
                     MyDB.updateHeartbeat(this@LocationService)
@@ -356,7 +438,8 @@ class LocationService : Service() {
     }
 
     private fun stopHeartbeat() {
-        MCT7.get().cancelByTag("${TAG}_heartbeat")
+        MCT7.get().cancel(heartbeatTaskId)
+        heartbeatTaskId = -1
     }
 
     // ===== Notification =====
@@ -403,6 +486,8 @@ class LocationService : Service() {
         }
     }
 
+    // Main thread (state changes) and location thread (fixes)
+    @Synchronized
     private fun updateNotificationContent(content: String) {
         notificationBuilder?.let { builder ->
             builder.setContentText(content)
@@ -0,0 +1,94 @@
+package com.guy.class26a_ands_2;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+
+import com.guy.mct7.TimerEngine;
+
+/**
+ * MCT7 engine that schedules straight onto a Looper's MessageQueue.
+ *
+ * WHY?
+ * - The executor engines wake a worker thread at the deadline, which then posts
+ *   to the main Handler: two context switches and an extra wakeup per tick.
+ * - Here the deadline lives in the Looper's own queue (sendMessageAtTime with
+ *   SystemClock.uptimeMillis), so the Looper thread wakes once and runs the command.
+ *
+ * Commands run ON the Looper thread, so MCT7Android pairs it with
+ * MCT7.Dispatcher.IMMEDIATE instead of posting callbacks again.
+ *
+ * Messages come from the framework's Message pool, so steady-state ticks don't allocate.
+ * Like Handler.postDelayed, uptime doesn't advance in deep sleep.
+ */
+final class LooperTimerEngine implements TimerEngine {
+
+    private static final int MSG_FIRE = 1;
+
+    private final Handler handler;
+
+    LooperTimerEngine(Looper looper) {
+        this.handler = new Handler(looper, this::handleMessage);
+    }
+
+    @Override
+    public Handle schedule(Runnable command, long delayMs) {
+        return send(new Entry(command, 0), delayMs);
+    }
+
+    @Override
+    public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+        if (delayMs <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delayMs);
+        }
+        return send(new Entry(command, delayMs), initialDelayMs);
+    }
+
+    @Override
+    public void shutdown() {
+        handler.removeMessages(MSG_FIRE, null); // null matches every entry
+    }
+
+    private Entry send(Entry entry, long delayMs) {
+        long uptimeMs = SystemClock.uptimeMillis() + Math.max(0, delayMs);
+        handler.sendMessageAtTime(handler.obtainMessage(MSG_FIRE, entry), uptimeMs);
+        return entry;
+    }
+
+    private boolean handleMessage(Message msg) {
+        Entry entry = (Entry) msg.obj;
+        if (entry.cancelled) {
+            return true;
+        }
+        try {
+            entry.command.run();
+        } catch (RuntimeException e) {
+            // Same contract as ScheduledThreadPoolExecutor: a failing periodic task stops repeating
+            entry.cancelled = true;
+            throw e;
+        }
+        if (entry.periodMs > 0 && !entry.cancelled) {
+            // Fixed delay: next run is measured from the END of this one
+            send(entry, entry.periodMs);
+        }
+        return true;
+    }
+
+    private final class Entry implements Handle {
+        final Runnable command;
+        final long periodMs; // 0 for one-shot commands
+        volatile boolean cancelled;
+
+        Entry(Runnable command, long periodMs) {
+            this.command = command;
+            this.periodMs = periodMs;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            handler.removeMessages(MSG_FIRE, this);
+        }
+    }
+}
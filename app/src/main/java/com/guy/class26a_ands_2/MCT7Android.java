@@ -0,0 +1,181 @@
+package com.guy.class26a_ands_2;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.guy.mct7.MCT7;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Android adapter for the plain-Java MCT7 module.
+ *
+ * MCT7 itself knows nothing about Handler or Looper; this class supplies the
+ * main-thread Dispatcher and the Looper-backed engine.
+ *
+ * Usage:
+ *   // Application.onCreate()
+ *   MCT7Android.init();                                // Worker thread + main-thread callbacks
+ *   MCT7Android.init(MCT7Android.Mode.MAIN_LOOPER);    // No worker thread at all
+ *
+ *   // Then use MCT7 as usual
+ *   MCT7.get().cycle(5, 1000, ticker);
+ *
+ *   // Tasks owned by an Activity: alive while it is, cancelled on ON_DESTROY
+ *   MCT7.TaskGroup timers = MCT7Android.groupOf(activity);
+ *
+ *   // Long waits (>= 1 min) and allowWhileIdle() tasks through AlarmManager, so Doze can't freeze them
+ *   MCT7Android.enableAlarmTier(context);
+ *
+ *   // Frame-aligned ticks for on-screen animation
+ *   MCT7Android.vsync().add((frameTimeNanos, deltaNanos) -> animate(deltaNanos));
+ *
+ *   // Callbacks on a background Looper instead of the main thread
+ *   MCT7.Options.builder().executeOn(MCT7Android.executor(handlerThread.getLooper())).build();
+ */
+public final class MCT7Android {
+
+    /**
+     * How MCT7 is wired on Android.
+     */
+    public enum Mode {
+        /** ScheduledThreadPoolExecutor worker, callbacks posted to the main thread. The default. */
+        EXECUTOR,
+
+        /** Timing-wheel worker (O(1) schedule/cancel), callbacks posted to the main thread. */
+        TIMING_WHEEL,
+
+        /**
+         * No worker thread: deadlines go straight into the main Looper's queue
+         * (Handler.sendMessageAtTime with SystemClock.uptimeMillis) and callbacks run
+         * inline. One wakeup per tick instead of a worker wakeup plus a main-thread hop.
+         * Task IDs, tags and cancel APIs are unchanged.
+         */
+        MAIN_LOOPER
+    }
+
+    /** Waits at least this long go to the alarm tier once it is enabled */
+    public static final long ALARM_TIER_MIN_DELAY_MS = 60_000;
+
+    private static VsyncTicker vsync; // Main thread only
+
+    private MCT7Android() {}
+
+    /**
+     * Initialize MCT7 for Android. Call once in Application.onCreate().
+     */
+    public static void init() {
+        init(Mode.EXECUTOR);
+    }
+
+    /**
+     * Initialize MCT7 for Android with a specific mode.
+     * Ignored if MCT7 is already initialized.
+     */
+    public static void init(Mode mode) {
+        switch (mode) {
+            case MAIN_LOOPER:
+                // Engine already fires on the main thread - no second hop
+                MCT7.init(new LooperTimerEngine(Looper.getMainLooper()), MCT7.Dispatcher.IMMEDIATE);
+                break;
+            case TIMING_WHEEL:
+                MCT7.init(MCT7.Engine.TIMING_WHEEL, mainThread());
+                break;
+            case EXECUTOR:
+            default:
+                MCT7.init(MCT7.Engine.EXECUTOR, mainThread());
+                break;
+        }
+    }
+
+    /**
+     * Route long waits and MCT7.Options allowWhileIdle() tasks through AlarmManager
+     * (see {@link AlarmTimerEngine}). Call after init(); ignored if already enabled.
+     */
+    public static void enableAlarmTier(Context context) {
+        MCT7.get().setAlarmEngine(new AlarmTimerEngine(context), ALARM_TIER_MIN_DELAY_MS);
+    }
+
+    /**
+     * Dispatcher that posts callbacks to the main Looper.
+     * Priority.HIGH callbacks go to the front of its queue.
+     */
+    public static MCT7.Dispatcher mainThread() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new MCT7.Dispatcher() {
+            @Override
+            public void dispatch(Runnable callback) {
+                handler.post(callback);
+            }
+
+            @Override
+            public void dispatchUrgent(Runnable callback) {
+                handler.postAtFrontOfQueue(callback);
+            }
+        };
+    }
+
+    /**
+     * Task group bound to a LifecycleOwner (Activity, Fragment, LifecycleService):
+     * its tasks are strongly held while the owner lives and cancelled on ON_DESTROY.
+     * Call on the main thread, like any Lifecycle observer registration.
+     */
+    public static MCT7.TaskGroup groupOf(LifecycleOwner owner) {
+        return groupOf(owner, false);
+    }
+
+    /**
+     * Like {@link #groupOf(LifecycleOwner)}; with pauseWhileStopped the group's cycles
+     * are also paused between ON_STOP and ON_START, so an invisible screen doesn't tick.
+     */
+    public static MCT7.TaskGroup groupOf(LifecycleOwner owner, boolean pauseWhileStopped) {
+        MCT7.TaskGroup group = MCT7.get().newGroup(owner.getClass().getSimpleName());
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(@NonNull LifecycleOwner source) {
+                if (pauseWhileStopped) {
+                    group.resume();
+                }
+            }
+
+            @Override
+            public void onStop(@NonNull LifecycleOwner source) {
+                if (pauseWhileStopped) {
+                    group.pause();
+                }
+            }
+
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                group.cancel();
+                source.getLifecycle().removeObserver(this);
+            }
+        });
+        return group;
+    }
+
+    /**
+     * The main thread's frame-aligned ticker, see {@link VsyncTicker}.
+     * Call on the main thread.
+     */
+    public static VsyncTicker vsync() {
+        if (vsync == null) {
+            vsync = new VsyncTicker(Choreographer.getInstance());
+        }
+        return vsync;
+    }
+
+    /**
+     * Executor that posts to any Looper (e.g. a HandlerThread's), for running a
+     * task's callbacks there with MCT7.Options.Builder.executeOn().
+     */
+    public static Executor executor(Looper looper) {
+        return new Handler(looper)::post;
+    }
+}
@@ -0,0 +1,167 @@
+package com.guy.class26a_ands_2
+
+import android.os.Looper
+import com.guy.mct7.MCT7
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Delay
+import kotlinx.coroutines.DisposableHandle
+import kotlinx.coroutines.InternalCoroutinesApi
+import kotlinx.coroutines.Runnable
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.coroutines.CoroutineContext
+import kotlin.coroutines.resume
+
+/**
+ * Kotlin coroutine / Flow bridge for MCT7.
+ *
+ * Lets coroutine code use MCT7's timers directly instead of wrapping CycleTicker
+ * and DelayedTask by hand. Cancellation is structured: cancelling the collector
+ * or the coroutine cancels the MCT7 task.
+ *
+ * Usage:
+ *   MCT7.get().tickerFlow(1_000, 10).collect { remaining -> ... }
+ *   MCT7.get().awaitDelay(500)
+ *   withContext(MCT7CoroutineDispatcher.Main) { delay(2_000) } // delay() runs on an MCT7 timer
+ */
+
+/**
+ * MCT7 holds callbacks weakly so an Activity never leaks through a timer. A coroutine
+ * is not referenced by anything else while it waits, so the bridge keeps its callbacks
+ * here until the task finishes or is cancelled.
+ */
+private val liveCallbacks: MutableSet<Any> = ConcurrentHashMap.newKeySet()
+
+/**
+ * Cold flow of ticks: every collector starts its own MCT7 cycle, and stopping
+ * collection cancels it. Emits the remaining count (INFINITE for endless cycles)
+ * and completes after the last tick - at once, with no ticks, if no cycle was
+ * scheduled (e.g. count 0).
+ *
+ * [overflow] says what happens to ticks a slow collector hasn't taken yet,
+ * with the same meaning as for callbacks on a busy main thread:
+ * - QUEUE: every tick is buffered and delivered
+ * - COALESCE: conflated, the collector sees only the newest tick
+ * - DROP: the oldest pending tick is kept and newer ones are dropped
+ */
+fun MCT7.tickerFlow(
+    intervalMs: Long,
+    count: Int = MCT7.INFINITE,
+    initialDelayMs: Long = 0,
+    tag: String? = null,
+    overflow: MCT7.OverflowPolicy = MCT7.OverflowPolicy.QUEUE,
+): Flow<Int> {
+    val ticks = callbackFlow {
+        val ticker = object : MCT7.CycleTicker {
+            override fun onTick(remainingTicks: Int) {
+                trySend(remainingTicks)
+            }
+
+            override fun onComplete() {
+                channel.close()
+            }
+        }
+        liveCallbacks.add(ticker)
+        val options = MCT7.Options.builder().overflowPolicy(overflow).build()
+        val taskId = cycle(count, intervalMs, initialDelayMs, tag, options, ticker)
+        if (taskId == -1) {
+            channel.close() // No task, so no onComplete() would ever close it
+        }
+        awaitClose {
+            cancel(taskId)
+            liveCallbacks.remove(ticker)
+        }
+    }
+    return when (overflow) {
+        MCT7.OverflowPolicy.QUEUE -> ticks.buffer(Channel.UNLIMITED)
+        MCT7.OverflowPolicy.COALESCE -> ticks.buffer(Channel.CONFLATED)
+        MCT7.OverflowPolicy.DROP -> ticks.buffer(1, BufferOverflow.DROP_LATEST)
+    }
+}
+
+/**
+ * Suspend for [delayMs] on an MCT7 timer. Resumes on MCT7's callback thread
+ * (the main thread on Android), or cancels the timer if the coroutine is cancelled.
+ */
+suspend fun MCT7.awaitDelay(delayMs: Long, tag: String? = null) {
+    suspendCancellableCoroutine { continuation ->
+        val task = scheduleResume(delayMs, tag) { continuation.resume(Unit) }
+        continuation.invokeOnCancellation { cancelScheduled(task) }
+    }
+}
+
+/**
+ * Run [block] once after [delayMs], keeping it strongly reachable until then.
+ * Returns the callback, for [cancelScheduled].
+ */
+private fun MCT7.scheduleResume(delayMs: Long, tag: String?, block: () -> Unit): MCT7.DelayedTask {
+    lateinit var task: MCT7.DelayedTask
+    task = MCT7.DelayedTask {
+        liveCallbacks.remove(task)
+        block()
+    }
+    liveCallbacks.add(task) // Before scheduling, so even a 0ms delay can't outrun it
+    delay(delayMs, tag, task)
+    return task
+}
+
+private fun MCT7.cancelScheduled(task: MCT7.DelayedTask) {
+    cancel(task) // Single lookup in MCT7's callback index
+    liveCallbacks.remove(task)
+}
+
+/**
+ * CoroutineDispatcher that runs coroutines through an MCT7.Dispatcher and backs
+ * delay() and withTimeout() with MCT7 timers, so coroutine code shares MCT7's
+ * single timer infrastructure.
+ *
+ * [isOnTarget] tells whether the current thread already is the target thread;
+ * then resumptions run in place instead of being posted again.
+ */
+@OptIn(InternalCoroutinesApi::class)
+class MCT7CoroutineDispatcher(
+    private val target: MCT7.Dispatcher,
+    private val isOnTarget: () -> Boolean = { false },
+    private val mct7: () -> MCT7 = MCT7::get,
+) : CoroutineDispatcher(), Delay {
+
+    companion object {
+        /** Main thread, like Dispatchers.Main, with MCT7-backed delays. */
+        val Main: MCT7CoroutineDispatcher by lazy {
+            MCT7CoroutineDispatcher(
+                MCT7Android.mainThread(),
+                isOnTarget = { Looper.myLooper() == Looper.getMainLooper() },
+            )
+        }
+    }
+
+    override fun isDispatchNeeded(context: CoroutineContext): Boolean = !isOnTarget()
+
+    override fun dispatch(context: CoroutineContext, block: Runnable) {
+        target.dispatch(block)
+    }
+
+    override fun scheduleResumeAfterDelay(timeMillis: Long, continuation: CancellableContinuation<Unit>) {
+        val timers = mct7()
+        val task = timers.scheduleResume(timeMillis, null) {
+            // MCT7 calls back on its own dispatcher; resume() re-dispatches only if that isn't our target
+            continuation.resume(Unit)
+        }
+        continuation.invokeOnCancellation { timers.cancelScheduled(task) }
+    }
+
+    override fun invokeOnTimeout(timeMillis: Long, block: Runnable, context: CoroutineContext): DisposableHandle {
+        val timers = mct7()
+        val task = timers.scheduleResume(timeMillis, null) { block.run() }
+        return DisposableHandle { timers.cancelScheduled(task) }
+    }
+
+    override fun toString(): String = "MCT7CoroutineDispatcher"
+}
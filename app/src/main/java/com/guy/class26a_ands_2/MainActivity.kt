@@ -12,6 +12,7 @@ import androidx.lifecycle.Lifecycle
 import androidx.lifecycle.lifecycleScope
 import androidx.lifecycle.repeatOnLifecycle
 import com.guy.class26a_ands_2.databinding.ActivityMainBinding
+import com.guy.mct7.MCT7
 import kotlinx.coroutines.launch
 
 /**
@@ -28,11 +29,25 @@ import kotlinx.coroutines.launch
  *
  * DATA FLOW:
  * LocationService → ServiceStateManager.locationData → MainActivity observes → UI updates
+ * Between fixes, speed and coordinates are interpolated on display frames (VsyncTicker).
  */
 class MainActivity : AppCompatActivity() {
 
     private lateinit var binding: ActivityMainBinding
 
+    // Speed and position glide between the 5s fixes on display frames; frames stop once settled
+    private val interpolator = FixInterpolator()
+    private val frameListener = VsyncTicker.FrameListener { frameTimeNanos, deltaNanos ->
+        val animating = interpolator.onFrame(frameTimeNanos, deltaNanos)
+        showInterpolated()
+        animating
+    }
+
+    // Last values on screen, in display units (0.1 km/h, 1e-6°): text is rebuilt only when they change
+    private var shownSpeedTenths = NOT_SHOWN
+    private var shownLatitudeMicros = NOT_SHOWN
+    private var shownLongitudeMicros = NOT_SHOWN
+
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
         enableEdgeToEdge()
@@ -88,6 +103,11 @@ class MainActivity : AppCompatActivity() {
         updateUI(ServiceStateManager.state.value)
     }
 
+    override fun onStop() {
+        super.onStop()
+        MCT7Android.vsync().remove(frameListener) // Nothing to draw for
+    }
+
     // ===== Button Setup =====
 
     private fun setupButtons() {
@@ -181,6 +201,11 @@ class MainActivity : AppCompatActivity() {
      */
     private fun updateLocationUI(data: LocationData?) {
         if (data == null) {
+            interpolator.reset()
+            MCT7Android.vsync().remove(frameListener)
+            shownSpeedTenths = NOT_SHOWN
+            shownLatitudeMicros = NOT_SHOWN
+            shownLongitudeMicros = NOT_SHOWN
             // No location data - hide or show default values
             binding.lblSpeed.text = "-- km/h"
             binding.lblCoordinates.text = "Lat: --\nLng: --"
@@ -188,14 +213,10 @@ class MainActivity : AppCompatActivity() {
             return
         }
 
-        // Update speed display
-        binding.lblSpeed.text = "%.1f km/h".format(data.speedKmh)
-
-        // Update coordinates
-        binding.lblCoordinates.text = "Lat: %.6f\nLng: %.6f".format(
-            data.latitude,
-            data.longitude
-        )
+        // Speed and coordinates: from the fix now, then interpolated on each frame
+        interpolator.onFix(data, System.nanoTime())
+        showInterpolated()
+        MCT7Android.vsync().add(frameListener)
 
         // Update additional info
         binding.lblLocationInfo.text = buildString {
@@ -206,6 +227,28 @@ class MainActivity : AppCompatActivity() {
         }
     }
 
+    /**
+     * Every frame while gliding: formats and sets text (and may relayout) only when
+     * a value changes at the precision shown.
+     */
+    private fun showInterpolated() {
+        val speedTenths = Math.round(interpolator.speedKmh * 10.0)
+        if (speedTenths != shownSpeedTenths) {
+            shownSpeedTenths = speedTenths
+            binding.lblSpeed.text = "%.1f km/h".format(interpolator.speedKmh)
+        }
+        val latitudeMicros = Math.round(interpolator.latitude * 1e6)
+        val longitudeMicros = Math.round(interpolator.longitude * 1e6)
+        if (latitudeMicros != shownLatitudeMicros || longitudeMicros != shownLongitudeMicros) {
+            shownLatitudeMicros = latitudeMicros
+            shownLongitudeMicros = longitudeMicros
+            binding.lblCoordinates.text = "Lat: %.6f\nLng: %.6f".format(
+                interpolator.latitude,
+                interpolator.longitude
+            )
+        }
+    }
+
     private fun updateUI(state: ServiceState) {
         when (state) {
             ServiceState.STOPPED -> {
@@ -253,4 +296,8 @@ class MainActivity : AppCompatActivity() {
             "Enable auto-restart"
         }
     }
-}
\ No newline at end of file
+
+    private companion object {
+        const val NOT_SHOWN = Long.MIN_VALUE // Forces the next showInterpolated() to draw
+    }
+}
@@ -3,6 +3,7 @@ package com.guy.class26a_ands_2
 import android.content.Context
 import android.content.SharedPreferences
 import androidx.core.content.edit
+import com.guy.mct7.MCT7
 
 /**
  * MyDB - Simple persistence for service state using SharedPreferences.
@@ -23,6 +24,7 @@ object MyDB {
     private const val KEY_DESIRED_STATE = "KEY_DESIRED_STATE"
     private const val KEY_ACTUAL_STATE = "KEY_ACTUAL_STATE"
     private const val KEY_LAST_HEARTBEAT = "KEY_LAST_HEARTBEAT"
+    private const val KEY_LOCATION_BATCHING = "KEY_LOCATION_BATCHING"
 
     // How often service writes heartbeat (milliseconds)
     const val HEARTBEAT_INTERVAL_MS = 10_000L  // 10 seconds
@@ -30,6 +32,9 @@ object MyDB {
     // How long before we consider service dead (3x interval = allows 2 missed beats)
     private const val HEARTBEAT_TIMEOUT_MS = HEARTBEAT_INTERVAL_MS * 3  // 30 seconds
 
+    // Time source for heartbeats. Local unit tests swap in a VirtualTimeScheduler.
+    var clock: MCT7.Clock = MCT7.Clock.WALL
+
     private fun prefs(context: Context): SharedPreferences {
         return context.getSharedPreferences(FILE_NAME, Context.MODE_PRIVATE)
     }
@@ -58,11 +63,22 @@ object MyDB {
         prefs(context).edit { putString(KEY_ACTUAL_STATE, state.name) }
     }
 
+    // ===== Location Batching =====
+    // Let the location hardware buffer fixes and deliver them in batches (read at each start)
+
+    fun isLocationBatching(context: Context): Boolean {
+        return prefs(context).getBoolean(KEY_LOCATION_BATCHING, false)
+    }
+
+    fun setLocationBatching(context: Context, enabled: Boolean) {
+        prefs(context).edit { putBoolean(KEY_LOCATION_BATCHING, enabled) }
+    }
+
     // ===== Heartbeat =====
     // Service calls updateHeartbeat() periodically to prove it's alive
 
     fun updateHeartbeat(context: Context) {
-        prefs(context).edit { putLong(KEY_LAST_HEARTBEAT, System.currentTimeMillis()) }
+        prefs(context).edit { putLong(KEY_LAST_HEARTBEAT, clock.millis()) }
     }
 
     fun getLastHeartbeat(context: Context): Long {
@@ -77,10 +93,16 @@ object MyDB {
      * Check if service is truly running (heartbeat within timeout).
      */
     fun isServiceAlive(context: Context): Boolean {
-        val lastHeartbeat = getLastHeartbeat(context)
+        return isHeartbeatFresh(getLastHeartbeat(context), clock.millis())
+    }
+
+    /**
+     * Heartbeat timeout rule without SharedPreferences, so it can be tested on the JVM.
+     */
+    fun isHeartbeatFresh(lastHeartbeat: Long, now: Long): Boolean {
         if (lastHeartbeat == 0L) return false
 
-        val elapsed = System.currentTimeMillis() - lastHeartbeat
+        val elapsed = now - lastHeartbeat
         return elapsed < HEARTBEAT_TIMEOUT_MS
     }
 
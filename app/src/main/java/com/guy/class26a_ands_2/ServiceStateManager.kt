@@ -2,6 +2,9 @@ package com.guy.class26a_ands_2
 
 import android.content.Context
 import android.util.Log
+import com.guy.mct7.MCT7
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
@@ -26,8 +29,15 @@ object ServiceStateManager {
     val isServiceProcessRunning: StateFlow<Boolean> = _isServiceProcessRunning.asStateFlow()
 
     // ===== Location Data =====
-    private val _locationData = MutableStateFlow<LocationData?>(null)
-    val locationData: StateFlow<LocationData?> = _locationData.asStateFlow()
+    // Latest fix only (conflated): what the UI draws
+    private val locationFeed = LocationFeed()
+    val locationData: StateFlow<LocationData?> = locationFeed.data
+
+    // Every fix, per subscriber: recorders, statistics, export (see LocationBus)
+    val locationBus = LocationBus(CoroutineScope(SupervisorJob()))
+
+    // The last fixes as primitive columns, for charts and rolling speed (~17 min at 2s)
+    val recentFixes = FixHistory(capacity = 512)
 
     /**
      * Update the current state. Called by LocationService when state changes.
@@ -45,16 +55,19 @@ object ServiceStateManager {
 
     /**
      * Update location data. Called by LocationService when new location is received.
+     * The record is copied, so the caller may reuse it for the next fix.
      */
-    fun updateLocation(data: LocationData) {
-        _locationData.value = data
+    fun updateLocation(record: LocationRecord) {
+        locationFeed.publish(record)
+        locationBus.publish(record)
     }
 
     /**
      * Clear location data. Called when service stops.
      */
     fun clearLocation() {
-        _locationData.value = null
+        locationFeed.clear()
+        recentFixes.clear()
     }
 
     /**
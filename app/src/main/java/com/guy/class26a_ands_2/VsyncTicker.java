@@ -0,0 +1,121 @@
+package com.guy.class26a_ands_2;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Frame-aligned ticks for anything drawn on screen, next to MCT7's timer ticks.
+ *
+ * WHY?
+ * - An MCT7 cycle fires on its own clock, so a 16ms ticker drifts against the
+ *   display's vsync: some frames get two updates, some none, and motion stutters.
+ * - Here every tick is a Choreographer frame callback, delivered with the frame's
+ *   vsync timestamp and the time since the previous frame.
+ *
+ * Frame callbacks are only requested while at least one listener is registered.
+ * A listener returns false from onFrame() once it has nothing left to animate, and the
+ * ticker stops by itself when the last one is gone - no idle frames, no extra wakeups.
+ *
+ * Main thread only, like Choreographer itself.
+ *
+ * Usage:
+ *   VsyncTicker vsync = MCT7Android.vsync();
+ *   vsync.add((frameTimeNanos, deltaNanos) -> {
+ *       position += velocity * deltaNanos / 1e9;
+ *       return !arrived;
+ *   });
+ */
+public final class VsyncTicker implements Choreographer.FrameCallback {
+
+    /**
+     * Called once per display frame while registered.
+     */
+    public interface FrameListener {
+        /**
+         * @param frameTimeNanos Vsync time of this frame (System.nanoTime base)
+         * @param deltaNanos Time since the previous frame, 0 on the first frame after a (re)start
+         * @return false to stop receiving frames
+         */
+        boolean onFrame(long frameTimeNanos, long deltaNanos);
+    }
+
+    private final Choreographer choreographer;
+    private final ArrayList<FrameListener> listeners = new ArrayList<>();
+    // Copy that doFrame() iterates, so listeners may add or remove during a frame;
+    // only rebuilt after a change, so steady frames don't allocate
+    private FrameListener[] dispatching = new FrameListener[0];
+    private boolean listenersChanged;
+    private boolean frameRequested;
+    private long lastFrameNanos; // 0: no previous frame since the last start
+
+    VsyncTicker(Choreographer choreographer) {
+        this.choreographer = choreographer;
+    }
+
+    /**
+     * Start delivering frames to a listener. No-op if it is already registered.
+     */
+    public void add(FrameListener listener) {
+        if (listeners.contains(listener)) {
+            return;
+        }
+        listeners.add(listener);
+        listenersChanged = true;
+        if (!frameRequested) {
+            frameRequested = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stop delivering frames to a listener. The ticker stops with the last one.
+     */
+    public void remove(FrameListener listener) {
+        if (listeners.remove(listener)) {
+            listenersChanged = true;
+            if (listeners.isEmpty()) {
+                stop();
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return frameRequested;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameRequested = false;
+        long deltaNanos = (lastFrameNanos != 0) ? frameTimeNanos - lastFrameNanos : 0;
+        lastFrameNanos = frameTimeNanos;
+
+        if (listenersChanged) {
+            dispatching = listeners.toArray(dispatching);
+            listenersChanged = false;
+        }
+        for (FrameListener listener : dispatching) {
+            if (listener == null) {
+                break; // toArray() leaves a null after the live entries of a longer array
+            }
+            if (listeners.contains(listener) && !listener.onFrame(frameTimeNanos, deltaNanos)) {
+                remove(listener);
+            }
+        }
+
+        if (listeners.isEmpty()) {
+            stop();
+        } else if (!frameRequested) {
+            frameRequested = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    private void stop() {
+        if (frameRequested) {
+            choreographer.removeFrameCallback(this);
+            frameRequested = false;
+        }
+        lastFrameNanos = 0; // A later start must not see the idle gap as one huge frame
+    }
+}
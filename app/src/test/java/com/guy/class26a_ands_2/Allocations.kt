@@ -0,0 +1,33 @@
+package com.guy.class26a_ands_2
+
+import org.junit.Assert.assertTrue
+import java.lang.management.ManagementFactory
+
+/**
+ * Allocation checks for the zero-allocation paths (per fix, per frame).
+ *
+ * Measured with HotSpot's per-thread allocation counter, so only the calling thread's
+ * allocations count. Warm the path up first, so class loading and JIT are done.
+ */
+object Allocations {
+
+    /**
+     * What a zero-allocation run may still show: one-off noise such as a lazily
+     * initialized field. A single object per iteration over 100k iterations would be
+     * over a megabyte, so anything per-iteration fails.
+     */
+    const val MAX_BYTES = 1024L
+
+    /** Run [block] and fail unless it allocated no more than [MAX_BYTES] on this thread. */
+    inline fun assertNone(what: String, block: () -> Unit) {
+        val before = allocatedBytes()
+        block()
+        val allocated = allocatedBytes() - before
+        assertTrue("$what allocated $allocated bytes", allocated <= MAX_BYTES)
+    }
+
+    fun allocatedBytes(): Long {
+        val threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        return threads.getThreadAllocatedBytes(Thread.currentThread().id)
+    }
+}
@@ -0,0 +1,90 @@
+package com.guy.class26a_ands_2
+
+import org.junit.Assert.*
+import org.junit.Test
+import kotlin.concurrent.thread
+
+/**
+ * Local unit test: ring order across the wrap, consistent windows under a live writer,
+ * and an allocation-free write path.
+ */
+class FixHistoryTest {
+
+    private val fix = LocationRecord()
+
+    /** Fix number n, with every column derived from n so a torn row shows. */
+    private fun FixHistory.addFix(n: Long) {
+        fix.latitude = n.toDouble()
+        fix.longitude = -n.toDouble()
+        fix.accuracy = n.toFloat()
+        fix.speed = (n % 100).toFloat()
+        fix.altitude = n * 2.0
+        fix.bearing = (n % 360).toFloat()
+        fix.timestamp = n * 1_000
+        add(fix)
+    }
+
+    @Test
+    fun windowHoldsTheNewestFixesOldestFirstAcrossTheWrap() {
+        val history = FixHistory(capacity = 8)
+        for (n in 1L..13L) history.addFix(n)
+        val window = FixWindow(capacity = 8)
+
+        assertEquals(8, history.size)
+        assertEquals(5, history.snapshot(window, maxCount = 5))
+        assertEquals(listOf(9.0, 10.0, 11.0, 12.0, 13.0), window.latitude.take(5))
+        assertEquals(13_000L, window.time[4])
+        assertEquals(8L, window.firstSequence) // Zero-based: fix 9 was the 9th added
+
+        assertEquals(8, history.snapshot(window))
+        assertEquals(6.0, window.latitude[0], 0.0)
+        assertEquals(12f, history.meanSpeed(3), 0f) // (11 + 12 + 13) / 3
+
+        assertThrows(IllegalArgumentException::class.java) { history.snapshot(window, maxCount = -1) }
+        assertThrows(IllegalArgumentException::class.java) { history.snapshot(window, maxCount = 9) }
+
+        history.clear()
+        assertEquals(0, history.snapshot(window))
+        assertEquals(0f, history.meanSpeed(3), 0f)
+    }
+
+    @Test
+    fun readersNeverSeeATornRowWhileTheWriterRuns() {
+        val history = FixHistory(capacity = 64)
+        val writer = thread {
+            for (n in 1L..500_000L) history.addFix(n)
+        }
+        val window = FixWindow(capacity = 32)
+        var snapshots = 0
+        while (writer.isAlive || snapshots == 0) {
+            val count = history.snapshot(window)
+            for (row in 0 until count) {
+                val n = window.firstSequence + row + 1 // Rows are consecutive fixes
+                assertEquals(n.toDouble(), window.latitude[row], 0.0)
+                assertEquals(-n.toDouble(), window.longitude[row], 0.0)
+                assertEquals(n * 1_000, window.time[row])
+                assertEquals(n * 2.0, window.altitude[row], 0.0)
+            }
+            snapshots++
+        }
+        writer.join()
+        assertTrue(snapshots > 0)
+    }
+
+    @Test
+    fun addAndSnapshotAllocateNothing() {
+        val history = FixHistory(capacity = 512)
+        val window = FixWindow(capacity = 64)
+        for (n in 1L..50_000L) {
+            history.addFix(n)
+            history.snapshot(window)
+        }
+
+        Allocations.assertNone("100k adds and snapshots") {
+            for (n in 1L..100_000L) {
+                history.addFix(n)
+                history.snapshot(window)
+            }
+        }
+    }
+}
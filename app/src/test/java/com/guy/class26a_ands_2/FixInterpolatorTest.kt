@@ -0,0 +1,57 @@
+package com.guy.class26a_ands_2
+
+import org.junit.Assert.*
+import org.junit.Test
+
+/**
+ * Local unit test: speed easing and dead reckoning between fixes, frame by frame.
+ */
+class FixInterpolatorTest {
+
+    private val frameNanos = 16_666_667L
+
+    private val interpolator = FixInterpolator(speedTimeConstantMs = 1_000, maxExtrapolationMs = 5_000)
+
+    /** Run frames for [ms] after [startNanos]; returns the last onFrame() result. */
+    private fun runFrames(startNanos: Long, ms: Long): Boolean {
+        var animating = true
+        var t = startNanos
+        while (t < startNanos + ms * 1_000_000) {
+            t += frameNanos
+            animating = interpolator.onFrame(t, frameNanos)
+        }
+        return animating
+    }
+
+    @Test
+    fun speedEasesTowardTheNewFix() {
+        interpolator.onFix(LocationData(speedKmh = 0f), 0)
+        interpolator.onFix(LocationData(speedKmh = 36f), 0)
+
+        runFrames(0, 1_000) // One time constant: ~63% of the way
+        assertEquals(36f * 0.632f, interpolator.speedKmh, 0.5f)
+
+        assertFalse(runFrames(1_000_000_000, 10_000)) // Settled, frames can stop
+        assertEquals(36f, interpolator.speedKmh, 0.05f)
+    }
+
+    @Test
+    fun positionIsDeadReckonedAlongTheBearingAndCapped() {
+        // 10 m/s due north
+        interpolator.onFix(LocationData(latitude = 32.0, longitude = 34.8, speed = 10f, speedKmh = 36f), 0)
+
+        assertTrue(runFrames(0, 1_000))
+        val metersPerDegree = 6_371_000.0 * Math.PI / 180
+        assertEquals(10.0, (interpolator.latitude - 32.0) * metersPerDegree, 0.2)
+        assertEquals(34.8, interpolator.longitude, 1e-9)
+
+        // Past maxExtrapolationMs the marker stops instead of running away
+        assertFalse(runFrames(1_000_000_000, 10_000))
+        assertEquals(50.0, (interpolator.latitude - 32.0) * metersPerDegree, 0.01)
+    }
+
+    @Test
+    fun nothingToAnimateWithoutAFix() {
+        assertFalse(interpolator.onFrame(frameNanos, frameNanos))
+    }
+}
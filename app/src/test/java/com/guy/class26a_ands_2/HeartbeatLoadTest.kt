@@ -0,0 +1,78 @@
+package com.guy.class26a_ands_2
+
+import com.guy.mct7.MCT7
+import com.guy.mct7.VirtualTimeScheduler
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import java.lang.ref.Reference
+import java.util.concurrent.TimeUnit
+
+/**
+ * Local unit test: heartbeat and timeout logic over a full shift, in virtual time.
+ *
+ * Uses VirtualTimeScheduler, so 10 hours of MCT7 heartbeats run in milliseconds.
+ */
+class HeartbeatLoadTest {
+
+    private val time = VirtualTimeScheduler(TimeUnit.DAYS.toMillis(1))
+
+    private var lastHeartbeat = 0L
+    private var beats = 0
+
+    private val heartbeat = object : MCT7.CycleTicker {
+        override fun onTick(remainingTicks: Int) {
+            lastHeartbeat = MyDB.clock.millis()
+            beats++
+        }
+    }
+
+    @Before
+    fun setUp() {
+        MCT7.initVirtual(time)
+        MyDB.clock = time
+    }
+
+    @After
+    fun tearDown() {
+        MCT7.shutdown()
+        MyDB.clock = MCT7.Clock.WALL
+        Reference.reachabilityFence(heartbeat) // MCT7 only holds tickers weakly
+    }
+
+    @Test
+    fun heartbeatStaysFreshForTenHourShift() {
+        MCT7.get().cycle(MCT7.INFINITE, MyDB.HEARTBEAT_INTERVAL_MS, heartbeat)
+
+        // Check every second, like an impatient monitor would
+        repeat(TimeUnit.HOURS.toSeconds(10).toInt()) {
+            time.advanceBy(1_000)
+            assertTrue(MyDB.isHeartbeatFresh(lastHeartbeat, time.millis()))
+        }
+
+        assertEquals(TimeUnit.HOURS.toMillis(10) / MyDB.HEARTBEAT_INTERVAL_MS + 1, beats.toLong())
+    }
+
+    @Test
+    fun stoppedHeartbeatIsDetectedWithinTimeout() {
+        val taskId = MCT7.get().cycle(MCT7.INFINITE, MyDB.HEARTBEAT_INTERVAL_MS, heartbeat)
+        time.advanceBy(TimeUnit.HOURS.toMillis(1))
+
+        // Simulate a crash: the heartbeat stops
+        MCT7.get().cancel(taskId)
+        val crashedAt = time.millis()
+
+        while (MyDB.isHeartbeatFresh(lastHeartbeat, time.millis())) {
+            time.advanceBy(1_000)
+        }
+
+        val detectedAfter = time.millis() - crashedAt
+        assertTrue("Detected after $detectedAfter ms", detectedAfter <= MyDB.HEARTBEAT_INTERVAL_MS * 3)
+    }
+
+    @Test
+    fun missingHeartbeatIsNeverFresh() {
+        assertFalse(MyDB.isHeartbeatFresh(0L, time.millis()))
+    }
+}
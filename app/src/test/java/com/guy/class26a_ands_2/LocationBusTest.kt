@@ -0,0 +1,148 @@
+package com.guy.class26a_ands_2
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExecutorCoroutineDispatcher
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.Executors
+
+/**
+ * Local unit test: every subscriber gets fixes per its own policy, on its own thread,
+ * and a stuck one holds nobody else up.
+ */
+class LocationBusTest {
+
+    private val scope = CoroutineScope(SupervisorJob())
+    private val bus = LocationBus(scope)
+    private val dispatchers = ArrayList<ExecutorCoroutineDispatcher>()
+    private val fix = LocationRecord()
+
+    @After
+    fun tearDown() {
+        scope.cancel()
+        dispatchers.forEach { it.close() }
+    }
+
+    /** A thread of its own per consumer, like Dispatchers.IO vs. Main on device. */
+    private fun newDispatcher() =
+        Executors.newSingleThreadExecutor().asCoroutineDispatcher().also { dispatchers += it }
+
+    private fun publish(count: Int) {
+        fix.locationCount = count
+        bus.publish(fix)
+    }
+
+    @Test
+    fun stuckConsumerNeitherStallsTheOthersNorLosesFixesWhenUnbounded() = runBlocking {
+        val release = CompletableDeferred<Unit>()
+        val recorded = Collections.synchronizedList(ArrayList<Int>())
+        val recorderDone = CompletableDeferred<Unit>()
+        val uiLatest = CompletableDeferred<Unit>()
+
+        val recorder = bus.subscribe("recorder", LocationBus.Overflow.UNBOUNDED, dispatcher = newDispatcher()) {
+            release.await() // Stuck until the end of the run
+            recorded += it.locationCount
+            if (it.locationCount == FIXES) recorderDone.complete(Unit)
+        }
+        val ui = bus.subscribe("ui", LocationBus.Overflow.CONFLATE, dispatcher = newDispatcher()) {
+            if (it.locationCount == FIXES) uiLatest.complete(Unit)
+        }
+
+        for (i in 1..FIXES) {
+            publish(i) // Never waits for the stuck recorder
+        }
+        withTimeout(5_000) { uiLatest.await() } // The UI saw the latest fix meanwhile
+        assertTrue(recorder.backlog >= FIXES - 1)
+
+        release.complete(Unit)
+        withTimeout(5_000) { recorderDone.await() }
+        assertEquals((1..FIXES).toList(), recorded)
+        assertEquals(0, recorder.dropped)
+        assertEquals(0, ui.dropped)
+    }
+
+    @Test
+    fun conflateHandsASlowConsumerOnlyTheLatestFix() = runBlocking {
+        val release = CompletableDeferred<Unit>()
+        val received = Collections.synchronizedList(ArrayList<Int>())
+        val busy = CompletableDeferred<Unit>()
+        val done = CompletableDeferred<Unit>()
+        val ui = bus.subscribe("ui", LocationBus.Overflow.CONFLATE, dispatcher = newDispatcher()) {
+            busy.complete(Unit)
+            release.await()
+            received += it.locationCount
+            if (it.locationCount == FIXES) done.complete(Unit)
+        }
+
+        publish(1)
+        withTimeout(5_000) { busy.await() } // Consumer is stuck on fix 1
+        for (i in 2..FIXES) {
+            publish(i)
+        }
+        assertEquals(1, ui.backlog)
+        release.complete(Unit)
+        withTimeout(5_000) { done.await() }
+
+        assertEquals(listOf(1, FIXES), received) // Everything in between was superseded
+        assertEquals(0, ui.dropped) // Conflation isn't counted as a drop
+    }
+
+    @Test
+    fun bufferKeepsTheNewestFixesAndCountsDrops() = runBlocking {
+        val release = CompletableDeferred<Unit>()
+        val received = Collections.synchronizedList(ArrayList<Int>())
+        val busy = CompletableDeferred<Unit>()
+        val done = CompletableDeferred<Unit>()
+        val export = bus.subscribe("export", LocationBus.Overflow.BUFFER, capacity = 10, dispatcher = newDispatcher()) {
+            busy.complete(Unit)
+            release.await()
+            received += it.locationCount
+            if (it.locationCount == FIXES) done.complete(Unit)
+        }
+
+        publish(1)
+        withTimeout(5_000) { busy.await() } // Consumer is stuck on fix 1
+        for (i in 2..FIXES) {
+            publish(i)
+        }
+        assertEquals(10, export.backlog)
+        release.complete(Unit)
+        withTimeout(5_000) { done.await() }
+
+        assertEquals(listOf(1) + (FIXES - 9..FIXES).toList(), received)
+        assertEquals(FIXES - 11L, export.dropped)
+    }
+
+    @Test
+    fun failingOrCancelledSubscriptionsLeaveTheBus() = runBlocking {
+        val failed = CompletableDeferred<Unit>()
+        val broken = bus.subscribe("broken", LocationBus.Overflow.UNBOUNDED, dispatcher = newDispatcher()) {
+            failed.complete(Unit)
+            throw IllegalStateException("disk full")
+        }
+        val other = bus.subscribe("other", LocationBus.Overflow.CONFLATE, dispatcher = newDispatcher()) { }
+        assertEquals(2, bus.subscriberCount)
+
+        publish(1)
+        withTimeout(5_000) { failed.await() }
+        broken.job.join()
+        assertTrue(broken.failure is IllegalStateException)
+        assertTrue(other.isActive) // Siblings are unaffected
+
+        other.cancel()
+        other.job.join()
+        assertEquals(0, bus.subscriberCount)
+    }
+
+    private companion object {
+        const val FIXES = 1_000
+    }
+}
@@ -0,0 +1,40 @@
+package com.guy.class26a_ands_2
+
+import org.junit.Assert.*
+import org.junit.Test
+
+/**
+ * Local unit test: what per-fix and batched delivery cost, in wakeups and wake-lock time.
+ */
+class LocationDeliveryStatsTest {
+
+    @Test
+    fun batchedDeliverySavesAWakeupPerBufferedFix() {
+        val perFix = LocationDeliveryStats()
+        val batched = LocationDeliveryStats()
+
+        // One minute of 5s fixes: 12 single deliveries vs. two 30s batches
+        repeat(12) { perFix.onDelivery(1) }
+        repeat(2) { batched.onDelivery(6) }
+
+        assertEquals(0, perFix.wakeupsSaved)
+        assertEquals(12, batched.fixes)
+        assertEquals(10, batched.wakeupsSaved)
+        assertEquals(6, batched.largestBatch)
+    }
+
+    @Test
+    fun wakeLockTimeAddsUpAcrossAcquisitions() {
+        val stats = LocationDeliveryStats()
+
+        stats.onWakeLockAcquired(1_000)
+        stats.onWakeLockAcquired(2_000) // Already held: still counted from 1_000
+        stats.onWakeLockReleased(4_000)
+        stats.onWakeLockReleased(5_000) // Not held: ignored
+        assertEquals(3_000, stats.wakeLockHeldMs(10_000))
+
+        stats.onWakeLockAcquired(10_000)
+        assertEquals(3_500, stats.wakeLockHeldMs(10_500)) // Includes the lock still held
+        assertTrue(stats.summary(10_500).contains("wakeLockHeldMs=3500"))
+    }
+}
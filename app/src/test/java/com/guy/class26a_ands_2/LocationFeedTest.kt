@@ -0,0 +1,121 @@
+package com.guy.class26a_ands_2
+
+import com.guy.mct7.MCT7
+import com.guy.mct7.VirtualTimeScheduler
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Local unit test: the service's per-fix path (recent-fix ring, feed, bus, notification
+ * throttle) allocates nothing while nobody observes, and observers still see the latest fix.
+ */
+class LocationFeedTest {
+
+    private val time = VirtualTimeScheduler()
+    private val feed = LocationFeed()
+    private val fix = LocationRecord()
+    private var notifications = 0
+    private val notificationUpdates by lazy {
+        MCT7.get().throttler("notification", NOTIFICATION_THROTTLE_MS) { notifications++ }
+    }
+
+    @Before
+    fun setUp() {
+        MCT7.initVirtual(time)
+    }
+
+    @After
+    fun tearDown() {
+        MCT7.shutdown()
+        ServiceStateManager.clearLocation()
+    }
+
+    /** The reused record, overwritten with fix number [count]. */
+    private fun record(count: Int): LocationRecord {
+        fix.latitude = 32.0 + count * 1e-5
+        fix.longitude = 34.8
+        fix.speed = 10f
+        fix.locationCount = count
+        return fix
+    }
+
+    /** What LocationService.onLocationReceived() does per fix, minus android.location.Location. */
+    private fun onFix(count: Int) {
+        val fix = record(count)
+        ServiceStateManager.recentFixes.add(fix)
+        ServiceStateManager.updateLocation(fix) // Feed, then the bus
+        notificationUpdates.trigger()
+    }
+
+    @Test
+    fun perFixPathAllocatesNothingWithoutObservers() {
+        assertEquals(0, ServiceStateManager.locationBus.subscriberCount)
+        repeat(WARMUP_FIXES) { onFix(it) }
+
+        Allocations.assertNone("$MEASURED_FIXES fixes") {
+            for (i in 1..MEASURED_FIXES) {
+                onFix(i)
+            }
+        }
+        // Virtual time stood still: the throttle window never ended, so only the leading edge ran
+        assertEquals(1, notifications)
+        assertEquals(MEASURED_FIXES, ServiceStateManager.locationData.value!!.locationCount)
+        assertEquals(512, ServiceStateManager.recentFixes.size)
+
+        time.advanceBy(NOTIFICATION_THROTTLE_MS)
+        assertEquals(2, notifications) // And the trailing one once it did
+    }
+
+    @Test
+    fun lateObserverGetsTheLatestFix() = runBlocking {
+        feed.publish(record(1))
+        feed.publish(record(2))
+
+        val data = feed.data.first()
+
+        assertEquals(2, data!!.locationCount)
+        assertEquals(36f, data.speedKmh, 0.01f)
+    }
+
+    @Test
+    fun valueIsTheLatestFixWithoutObservers() {
+        feed.publish(record(1))
+        feed.publish(record(2))
+
+        assertEquals(2, feed.data.value!!.locationCount)
+        assertSame(feed.data.value, feed.data.value) // Snapshotted once per fix, not per read
+
+        feed.clear()
+        assertNull(feed.data.value)
+    }
+
+    @Test
+    fun observerSeesEachFixWhileSubscribed() = runBlocking {
+        val seen = launch {
+            val counts = feed.data.take(3).toList().map { it?.locationCount }
+            assertEquals(listOf(null, 1, 2), counts)
+        }
+        yield() // Let the collector subscribe
+        feed.publish(record(1))
+        yield()
+        feed.publish(record(2))
+        seen.join()
+
+        feed.clear()
+        assertNull(feed.data.first())
+    }
+
+    private companion object {
+        const val WARMUP_FIXES = 50_000
+        const val MEASURED_FIXES = 100_000
+        const val NOTIFICATION_THROTTLE_MS = 5_000L
+    }
+}
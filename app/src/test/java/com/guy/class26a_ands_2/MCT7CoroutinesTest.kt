@@ -0,0 +1,134 @@
+package com.guy.class26a_ands_2
+
+import com.guy.mct7.MCT7
+import com.guy.mct7.VirtualTimeScheduler
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.yield
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Local unit test: the coroutine / Flow bridge on virtual time.
+ *
+ * MCT7 callbacks run inline when the test advances the scheduler; the coroutines
+ * they resume run on runBlocking's event loop at the next yield().
+ */
+class MCT7CoroutinesTest {
+
+    private val time = VirtualTimeScheduler()
+
+    @Before
+    fun setUp() {
+        MCT7.initVirtual(time)
+    }
+
+    @After
+    fun tearDown() {
+        MCT7.shutdown()
+    }
+
+    /** Let launched coroutines run until they suspend (e.g. a flow registering its cycle). */
+    private suspend fun settle() {
+        repeat(5) { yield() }
+    }
+
+    /** Advance virtual time, then let resumed coroutines run. */
+    private suspend fun advanceBy(ms: Long) {
+        time.advanceBy(ms)
+        settle()
+    }
+
+    @Test
+    fun tickerFlowEmitsRemainingCountsAndCompletes() = runBlocking {
+        val ticks = async { MCT7.get().tickerFlow(1_000, 3).toList() }
+        settle()
+
+        advanceBy(3_000)
+
+        assertEquals(listOf(3, 2, 1), ticks.await())
+        assertEquals(0, MCT7.get().activeTaskCount)
+    }
+
+    @Test
+    fun tickerFlowWithNoTicksCompletesEmpty() = runBlocking {
+        assertEquals(emptyList<Int>(), MCT7.get().tickerFlow(1_000, 0).toList())
+        assertEquals(0, MCT7.get().activeTaskCount)
+    }
+
+    @Test
+    fun cancellingTheCollectorCancelsTheCycle() = runBlocking {
+        val seen = mutableListOf<Int>()
+        val job = launch { MCT7.get().tickerFlow(1_000, tag = "flow").collect { seen += it } }
+        settle()
+        assertEquals(1, MCT7.get().getActiveTaskCount("flow"))
+
+        advanceBy(2_000)
+        job.cancel()
+        job.join()
+
+        assertEquals(List(3) { MCT7.INFINITE }, seen) // Ticks at 0, 1000 and 2000
+        assertEquals(0, MCT7.get().getActiveTaskCount("flow"))
+        assertEquals(0, time.pendingCount())
+    }
+
+    @Test
+    fun conflatedFlowKeepsOnlyTheNewestTickForASlowCollector() = runBlocking {
+        val flow = MCT7.get().tickerFlow(1_000, 5, overflow = MCT7.OverflowPolicy.COALESCE)
+        val ticks = async { flow.toList() }
+        settle()
+
+        // Five ticks before the collector gets to run again: the first one goes straight
+        // to the waiting collector, the newest replaces the three in between
+        time.advanceBy(5_000)
+        assertEquals(listOf(5, 1), ticks.await())
+    }
+
+    @Test
+    fun awaitDelayResumesAfterTheDelayAndCancelsItsTimer() = runBlocking {
+        var resumed = false
+        val waiter = launch {
+            MCT7.get().awaitDelay(500)
+            resumed = true
+        }
+        settle()
+
+        advanceBy(499)
+        assertFalse(resumed)
+        advanceBy(1)
+        assertTrue(resumed)
+        waiter.join()
+
+        val cancelled = launch { MCT7.get().awaitDelay(500, "await") }
+        settle()
+        assertEquals(1, MCT7.get().getActiveTaskCount("await"))
+        cancelled.cancel()
+        cancelled.join()
+        assertEquals(0, MCT7.get().getActiveTaskCount("await"))
+    }
+
+    @Test
+    fun dispatcherDelayIsBackedByMct7Timers() = runBlocking {
+        val dispatcher = MCT7CoroutineDispatcher(MCT7.Dispatcher.IMMEDIATE, isOnTarget = { true })
+        var done = false
+        val job = launch {
+            withContext(dispatcher) {
+                delay(2_000)
+                done = true
+            }
+        }
+        settle()
+        assertEquals(1, MCT7.get().activeTaskCount)
+
+        advanceBy(2_000)
+        job.join()
+        assertTrue(done)
+        assertEquals(0, MCT7.get().activeTaskCount)
+    }
+}
@@ -0,0 +1,27 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// Plain JVM module: MCT7 has no Android dependency, so it can be unit tested
+// and benchmarked on the host. The app wires it to Handler/Looper (MCT7Android).
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// Benchmarks live in src/jmh. Run with:
+//   ./gradlew :mct7:jmh
+// Memory per live task needs the GC profiler:
+//   ./gradlew :mct7:jmh -Pjmh.profilers=gc
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+    providers.gradleProperty("jmh.profilers").orNull?.let { profilers.add(it) }
+}
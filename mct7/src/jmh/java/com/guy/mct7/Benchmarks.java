@@ -0,0 +1,29 @@
+package com.guy.mct7;
+
+/**
+ * Shared helpers for the MCT7 JMH suite.
+ */
+final class Benchmarks {
+
+    /** A delay long enough that a task never fires during a benchmark run. */
+    static final long NEVER_MS = 3_600_000;
+
+    private Benchmarks() {}
+
+    /**
+     * Standalone MCT7 instance (not the singleton) whose callbacks run on the worker thread.
+     */
+    static MCT7 newMct7(String engine) {
+        return new MCT7(newEngine(engine), MCT7.Dispatcher.IMMEDIATE);
+    }
+
+    static TimerEngine newEngine(String engine) {
+        switch (MCT7.Engine.valueOf(engine)) {
+            case TIMING_WHEEL:
+                return new TimingWheelTimerEngine(MCT7.Clock.MONOTONIC);
+            case EXECUTOR:
+            default:
+                return new ExecutorTimerEngine();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.guy.mct7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancel latency with a population of other live tasks in the scheduler.
+ * Each operation registers one task and cancels it again, by ID or by callback.
+ *
+ * cancelByCallbackScan is the baseline: the full scan cancel(callback) did before the
+ * callback index, over the same number of live tasks' weak references.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CancelBenchmark {
+
+    @Param({"EXECUTOR", "TIMING_WHEEL"})
+    public String engine;
+
+    @Param({"100", "10000"})
+    public int liveTasks;
+
+    private MCT7 mct7;
+    private final List<MCT7.CycleTicker> population = new ArrayList<>();
+    private final MCT7.CycleTicker ticker = remaining -> { };
+
+    // Baseline: task ID -> weak callback reference, as MCT7's task map held them
+    private final ConcurrentHashMap<Integer, WeakReference<MCT7.CycleTicker>> scanned = new ConcurrentHashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mct7 = Benchmarks.newMct7(engine);
+        for (int i = 0; i < liveTasks; i++) {
+            MCT7.CycleTicker other = remaining -> { };
+            population.add(other); // MCT7 holds tickers weakly
+            mct7.cycle(MCT7.INFINITE, Benchmarks.NEVER_MS, "population", other);
+            scanned.put(i, new WeakReference<>(other));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mct7.dispose();
+        population.clear();
+        scanned.clear();
+    }
+
+    @Benchmark
+    public boolean cancelById() {
+        return mct7.cancel(mct7.cycle(MCT7.INFINITE, Benchmarks.NEVER_MS, ticker));
+    }
+
+    @Benchmark
+    public boolean cancelByCallback() {
+        mct7.cycle(MCT7.INFINITE, Benchmarks.NEVER_MS, ticker);
+        return mct7.cancel(ticker);
+    }
+
+    @Benchmark
+    public boolean cancelByCallbackScan() {
+        scanned.put(liveTasks, new WeakReference<>(ticker));
+        boolean found = false;
+        Iterator<WeakReference<MCT7.CycleTicker>> iterator = scanned.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == ticker) {
+                iterator.remove();
+                found = true; // Don't break - there might be duplicates
+            }
+        }
+        return found;
+    }
+}
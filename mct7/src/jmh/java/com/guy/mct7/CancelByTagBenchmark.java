@@ -0,0 +1,64 @@
+package com.guy.mct7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cancelByTag with N other tags live. Each operation registers one tag's tasks
+ * and cancels them by tag; with the tag index the cost should not grow with N.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CancelByTagBenchmark {
+
+    private static final int TASKS_PER_TAG = 10;
+
+    @Param({"EXECUTOR", "TIMING_WHEEL"})
+    public String engine;
+
+    @Param({"1", "100", "1000"})
+    public int tags;
+
+    private MCT7 mct7;
+    private final MCT7.DelayedTask task = () -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mct7 = Benchmarks.newMct7(engine);
+        for (int tag = 0; tag < tags; tag++) {
+            for (int i = 0; i < TASKS_PER_TAG; i++) {
+                mct7.delay(Benchmarks.NEVER_MS, "tag" + tag, task);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mct7.dispose();
+    }
+
+    @Benchmark
+    public int cancelByTag() {
+        for (int i = 0; i < TASKS_PER_TAG; i++) {
+            mct7.delay(Benchmarks.NEVER_MS, "target", task);
+        }
+        return mct7.cancelByTag("target");
+    }
+}
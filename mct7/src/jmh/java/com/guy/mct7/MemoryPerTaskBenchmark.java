@@ -0,0 +1,60 @@
+package com.guy.mct7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory per live task.
+ *
+ * Each operation registers one long-lived task and keeps it live until the end of
+ * the iteration. Run with the GC profiler; gc.alloc.rate.norm is then the number
+ * of bytes each live task costs (Task, indexes, engine entry):
+ *   ./gradlew :mct7:jmh -Pjmh.includes=MemoryPerTask -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class MemoryPerTaskBenchmark {
+
+    @Param({"EXECUTOR", "TIMING_WHEEL"})
+    public String engine;
+
+    private MCT7 mct7;
+    private final MCT7.CycleTicker ticker = remaining -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mct7 = Benchmarks.newMct7(engine);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        mct7.cancelAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mct7.dispose();
+    }
+
+    @Benchmark
+    public int liveCycleTask() {
+        return mct7.cycle(MCT7.INFINITE, Benchmarks.NEVER_MS, "memory", ticker);
+    }
+}
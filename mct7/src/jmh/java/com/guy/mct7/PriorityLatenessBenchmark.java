@@ -0,0 +1,128 @@
+package com.guy.mct7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Heartbeat tick-to-tick time under load, NORMAL vs. HIGH priority.
+ *
+ * 200 UI tickers keep a looper-like main queue ~100 callbacks deep and 20 slow
+ * worker-side tickers saturate the normal lane. Each operation waits for the next
+ * heartbeat delivery on the main thread; the sample distribution minus the 20 ms
+ * interval is the heartbeat's lateness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriorityLatenessBenchmark {
+
+    private static final long HEARTBEAT_INTERVAL_MS = 20;
+
+    @Param({"NORMAL", "HIGH"})
+    public String priority;
+
+    /** Looper-like thread: one queue, post at the back or at the front. */
+    private static final class LooperThread implements MCT7.Dispatcher {
+        final LinkedBlockingDeque<Runnable> queue = new LinkedBlockingDeque<>();
+        final Thread thread = new Thread(this::loop, "fake-main");
+        volatile boolean quit;
+
+        LooperThread() {
+            thread.start();
+        }
+
+        @Override
+        public void dispatch(Runnable callback) {
+            queue.addLast(callback);
+        }
+
+        @Override
+        public void dispatchUrgent(Runnable callback) {
+            queue.addFirst(callback);
+        }
+
+        private void loop() {
+            while (!quit) {
+                try {
+                    Runnable r = queue.poll(10, TimeUnit.MILLISECONDS);
+                    if (r != null) {
+                        r.run();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void quit() throws InterruptedException {
+            quit = true;
+            thread.join();
+        }
+    }
+
+    private LooperThread mainThread;
+    private MCT7 mct7;
+    private final List<Object> callbacks = new ArrayList<>(); // MCT7 holds callbacks weakly
+    private final Semaphore beats = new Semaphore(0);
+    private final MCT7.CycleTicker heartbeat = remaining -> beats.release();
+
+    /** Blocking stand-in for callback work, so the load doesn't depend on spare cores. */
+    private static void busyFor(long micros) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mainThread = new LooperThread();
+        mct7 = new MCT7(new ExecutorTimerEngine(), new ExecutorTimerEngine(), MCT7.Clock.MONOTONIC, mainThread);
+
+        MCT7.Options worker = MCT7.Options.builder().onWorkerThread().build();
+        for (int i = 0; i < 200; i++) {
+            MCT7.CycleTicker ui = remaining -> busyFor(300);
+            callbacks.add(ui);
+            mct7.cycle(MCT7.INFINITE, 1, 0, "ui", MCT7.Options.DEFAULT, ui);
+        }
+        for (int i = 0; i < 20; i++) {
+            MCT7.CycleTicker io = remaining -> busyFor(5_000);
+            callbacks.add(io);
+            mct7.cycle(MCT7.INFINITE, 1, 0, "io", worker, io);
+        }
+
+        MCT7.Options options = MCT7.Options.builder().priority(MCT7.Priority.valueOf(priority)).build();
+        mct7.cycle(MCT7.INFINITE, HEARTBEAT_INTERVAL_MS, 0, "heartbeat", options, heartbeat);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        mct7.dispose();
+        mainThread.quit();
+        callbacks.clear();
+    }
+
+    @Benchmark
+    public void awaitHeartbeat() throws InterruptedException {
+        beats.drainPermits(); // Measure the next beat, not a backlog
+        beats.acquire();
+    }
+}
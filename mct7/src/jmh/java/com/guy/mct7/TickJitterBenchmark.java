@@ -0,0 +1,60 @@
+package com.guy.mct7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick jitter at 1/10/100 ms intervals.
+ *
+ * Each operation waits for the next tick, so a sample is the observed tick-to-tick
+ * time. The sample distribution (p50/p99/max) minus the interval is the jitter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickJitterBenchmark {
+
+    @Param({"EXECUTOR", "TIMING_WHEEL"})
+    public String engine;
+
+    @Param({"1", "10", "100"})
+    public long intervalMs;
+
+    private MCT7 mct7;
+    private final Semaphore ticks = new Semaphore(0);
+    private final MCT7.CycleTicker ticker = remaining -> ticks.release();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mct7 = Benchmarks.newMct7(engine);
+        mct7.cycle(MCT7.INFINITE, intervalMs, ticker);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mct7.dispose();
+    }
+
+    @Benchmark
+    public void awaitTick() throws InterruptedException {
+        ticks.drainPermits(); // Measure the next tick, not a backlog
+        ticks.acquire();
+    }
+}
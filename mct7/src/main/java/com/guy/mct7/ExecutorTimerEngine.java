@@ -0,0 +1,94 @@
+package com.guy.mct7;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default MCT7 engine, backed by a small shared ScheduledThreadPoolExecutor.
+ *
+ * Every schedule/cancel costs O(log n) work on the executor's delay heap
+ * plus a ScheduledFutureTask allocation.
+ *
+ * Threads come and go with the work:
+ * - No thread exists until something is scheduled.
+ * - While fewer than maxThreads workers are alive, EVERY schedule call starts another
+ *   one, burst or not (ScheduledThreadPoolExecutor prestarts core threads). The queue
+ *   is unbounded, so the pool never grows past maxThreads.
+ * - A worker that finds no due work for idleTimeoutMs retires. The last one stays
+ *   while any command is still waiting for its deadline, and if that deadline is
+ *   further away than idleTimeoutMs it wakes once per idleTimeoutMs to re-check.
+ * - So an idle app (nothing scheduled) holds zero threads.
+ */
+public final class ExecutorTimerEngine implements TimerEngine {
+
+    private static final int DEFAULT_MAX_THREADS = 2; // Sufficient for most apps
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 15_000;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    ExecutorTimerEngine() {
+        this(DEFAULT_MAX_THREADS, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    /**
+     * @param maxThreads    Number of workers: schedule calls start one each until this many are alive
+     * @param idleTimeoutMs How long a worker waits for work before it retires.
+     *                      A lone worker waiting on a deadline further away than this
+     *                      wakes once per timeout to re-check, so keep it well above
+     *                      short tick intervals.
+     */
+    public ExecutorTimerEngine(int maxThreads, long idleTimeoutMs) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("Invalid thread ceiling: " + maxThreads);
+        }
+        if (idleTimeoutMs <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive: " + idleTimeoutMs);
+        }
+        // For a ScheduledThreadPoolExecutor the core size IS the ceiling (it never grows past it);
+        // core threads start on demand when commands are scheduled
+        this.executor = new ScheduledThreadPoolExecutor(maxThreads, r -> {
+            Thread t = new Thread(r, "MCT7-Worker");
+            t.setDaemon(true); // Won't prevent app termination
+            return t;
+        });
+        this.executor.setKeepAliveTime(idleTimeoutMs, TimeUnit.MILLISECONDS);
+        this.executor.allowCoreThreadTimeOut(true); // Park down to zero threads when idle
+        // Drop cancelled futures from the delay heap right away (O(log n)), so they
+        // neither pile up behind long delays nor inflate pendingCount()
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public Handle schedule(Runnable command, long delayMs) {
+        ScheduledFuture<?> future = executor.schedule(command, delayMs, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false); // Don't interrupt if running
+    }
+
+    @Override
+    public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+        // Use scheduleWithFixedDelay instead of scheduleAtFixedRate!
+        // scheduleAtFixedRate can cause hundreds of rapid executions when Android
+        // process transitions from cached to uncached state (all "missed" ticks fire at once)
+        ScheduledFuture<?> future = executor.scheduleWithFixedDelay(
+                command, initialDelayMs, delayMs, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public int pendingCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Number of live worker threads right now.
+     */
+    public int threadCount() {
+        return executor.getPoolSize();
+    }
+}
@@ -0,0 +1,1920 @@
+package com.guy.mct7;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MCT7 - Modern Cycle Timer
+ *
+ * A thread-safe task scheduler that executes callbacks through a Dispatcher
+ * (on Android: the main thread).
+ *
+ * This module is plain Java with no Android dependency, so it can be unit tested and
+ * benchmarked (see src/jmh) on the JVM. The app's MCT7Android adapter supplies the
+ * Handler/Looper pieces.
+ *
+ * Key improvements over MCT6:
+ * - Single shared thread pool (prevents thread leak)
+ * - Atomic operations for thread safety
+ * - Proper use of cancellation handles (ScheduledFuture or timing-wheel entries)
+ * - WeakReference support to prevent Activity leaks
+ * - Lifecycle-aware design
+ * - No NPE catching hacks
+ * - Uses scheduleWithFixedDelay (not scheduleAtFixedRate) to prevent
+ *   burst executions when Android process transitions from cached state
+ *
+ * Usage:
+ *   // Initialize once in Application.onCreate() (Android adapter, main-thread dispatch)
+ *   MCT7Android.init();
+ *   // Plain JVM: any engine + dispatcher
+ *   MCT7.init(MCT7.Engine.TIMING_WHEEL, MCT7.Dispatcher.IMMEDIATE);
+ *
+ *   // Create repeating task (5 times, every 1 second)
+ *   MCT7.get().cycle(5, 1000, new MCT7.CycleTicker() {
+ *       @Override public void onTick(int remaining) { Log.d("TAG", "Tick: " + remaining); }
+ *       @Override public void onComplete() { Log.d("TAG", "Done!"); }
+ *   });
+ *
+ *   // Create one-shot delayed task
+ *   MCT7.get().delay(2000, () -> Log.d("TAG", "Executed after 2s"));
+ *
+ *   // With tags for group management
+ *   MCT7.get().cycle(10, 500, "MainActivity", ticker);
+ *   MCT7.get().cancelByTag("MainActivity"); // Cancel all tasks with this tag
+ *
+ *   // Allow 2s of slack so the tick can share a wakeup with other tasks
+ *   MCT7.get().cycle(MCT7.INFINITE, 10_000, 0, "heartbeat",
+ *           MCT7.Options.builder().toleranceMs(2_000).build(), ticker);
+ *
+ *   // Keep a heartbeat on time however many UI tickers are queued
+ *   MCT7.Options.builder().priority(MCT7.Priority.HIGH).build();
+ *
+ *   // Tasks owned by a Service: kept alive (no weak-callback loss) until the group is cancelled
+ *   MCT7.TaskGroup timers = MCT7.get().newGroup("LocationService");
+ *   timers.cycle(MCT7.INFINITE, 10_000, ticker);
+ *   timers.cancel(); // In onDestroy()
+ *
+ *   // At most one notification update per 5s, however often fixes arrive
+ *   MCT7.RateLimiter updates = MCT7.get().throttler("notification", 5_000, this::updateNotification);
+ *   updates.trigger(); // Per fix: an atomic update, no allocation
+ *
+ *   // Retune or suspend a running cycle; ID, tag and remaining ticks are kept
+ *   MCT7.get().reschedule(taskId, 250);
+ *   MCT7.get().pause(taskId);
+ *   MCT7.get().resume(taskId);
+ *
+ *   // Clean up in Activity.onDestroy()
+ *   MCT7.get().cancelByTag("ActivityName");
+ *   // Or cancel all: MCT7.get().cancelAll();
+ */
+public class MCT7 {
+
+    // ==================== Interfaces ====================
+
+    /**
+     * Callback for repeating cycle tasks.
+     * All methods are called on the task's execution target: the main thread unless
+     * set in {@link Options}. Calls for one task never overlap, even on a thread pool.
+     */
+    public interface CycleTicker {
+        /**
+         * Called on each tick.
+         * @param remainingTicks Number of ticks remaining (or INFINITE for continuous tasks)
+         */
+        void onTick(int remainingTicks);
+
+        /**
+         * Called instead of onTick(int) when {@link OverflowPolicy#COALESCE} merged ticks
+         * that piled up while the main thread was busy.
+         * @param remainingTicks Remaining count of the newest merged tick (or INFINITE)
+         * @param skippedTicks Number of older ticks folded into this one
+         */
+        default void onTick(int remainingTicks, int skippedTicks) {
+            onTick(remainingTicks);
+        }
+
+        /**
+         * Called when all ticks are complete.
+         * Not called if task is cancelled or runs indefinitely.
+         */
+        default void onComplete() {}
+    }
+
+    /**
+     * Simple callback for one-shot delayed tasks.
+     * Called on the task's execution target (the main thread by default).
+     */
+    public interface DelayedTask {
+        void onExecute();
+    }
+
+    /**
+     * Where MCT7 delivers callbacks. On Android the adapter posts to the main Looper.
+     */
+    public interface Dispatcher {
+        void dispatch(Runnable callback);
+
+        /**
+         * Deliver ahead of callbacks already waiting, for {@link Priority#HIGH} tasks
+         * (on Android: Handler.postAtFrontOfQueue). Defaults to dispatch().
+         */
+        default void dispatchUrgent(Runnable callback) {
+            dispatch(callback);
+        }
+
+        /** Runs callbacks inline on the thread whose timer fired (e.g. in virtual time). */
+        Dispatcher IMMEDIATE = Runnable::run;
+    }
+
+    /**
+     * Time source in milliseconds.
+     */
+    public interface Clock {
+        long millis();
+
+        /**
+         * Same time base in nanoseconds, for latency metrics.
+         * Defaults to millis() scaled up; MONOTONIC has real nanosecond resolution.
+         */
+        default long nanos() {
+            return TimeUnit.MILLISECONDS.toNanos(millis());
+        }
+
+        /** Monotonic time (System.nanoTime). Used for scheduling deadlines. */
+        Clock MONOTONIC = new Clock() {
+            @Override
+            public long millis() {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            }
+
+            @Override
+            public long nanos() {
+                return System.nanoTime();
+            }
+        };
+
+        /** Wall-clock time (System.currentTimeMillis). Used for persisted timestamps. */
+        Clock WALL = System::currentTimeMillis;
+    }
+
+    /**
+     * Adapter for CycleTicker when you only need onTick.
+     */
+    public static abstract class SimpleCycleTicker implements CycleTicker {
+        @Override
+        public void onComplete() {
+            // Default empty implementation
+        }
+    }
+
+    /**
+     * What a cycle task does with ticks that fire while its previous tick is
+     * still waiting for (or running on) the main thread - e.g. during GC,
+     * layout inflation or a slow frame.
+     */
+    public enum OverflowPolicy {
+        /** Deliver every tick, back-to-back once the main thread is free. The default. */
+        QUEUE,
+
+        /** Deliver one tick for the newest one, with the number of skipped ticks. */
+        COALESCE,
+
+        /** Deliver the oldest pending tick only and discard the rest. */
+        DROP
+    }
+
+    /**
+     * Scheduling class of a task.
+     *
+     * HIGH is for a few small, latency-sensitive periodic tasks such as a service heartbeat.
+     * Their lateness stays bounded no matter how much NORMAL work is queued:
+     * - Worker pickup: they run on their own engine lane, so a burst of NORMAL timers
+     *   (or a slow onWorkerThread() callback) never sits between them and their worker.
+     * - Dispatch: they go to the front of the target's queue (Dispatcher.dispatchUrgent),
+     *   so they only wait for the callback that is running right now.
+     * Used for bulk work, HIGH would just move the backlog to the front of the queue.
+     */
+    public enum Priority {
+        /** FIFO with every other callback on the target. The default. */
+        NORMAL,
+
+        /** Own worker lane and front-of-queue dispatch. */
+        HIGH
+    }
+
+    /**
+     * Optional per-task settings. Immutable; build with {@link #builder()}.
+     */
+    public static final class Options {
+        public static final Options DEFAULT = builder().build();
+
+        final OverflowPolicy overflowPolicy;
+        final long toleranceMs;
+        final Dispatcher target; // null: MCT7's default dispatcher (the main thread)
+        final Priority priority;
+        final boolean allowWhileIdle;
+
+        private Options(Builder builder) {
+            this.overflowPolicy = builder.overflowPolicy;
+            this.toleranceMs = builder.toleranceMs;
+            this.target = builder.target;
+            this.priority = builder.priority;
+            this.allowWhileIdle = builder.allowWhileIdle;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static final class Builder {
+            private OverflowPolicy overflowPolicy = OverflowPolicy.QUEUE;
+            private long toleranceMs;
+            private Dispatcher target;
+            private Priority priority = Priority.NORMAL;
+            private boolean allowWhileIdle;
+
+            private Builder() {}
+
+            public Builder overflowPolicy(OverflowPolicy policy) {
+                if (policy == null) {
+                    throw new IllegalArgumentException("Overflow policy cannot be null");
+                }
+                this.overflowPolicy = policy;
+                return this;
+            }
+
+            /**
+             * How late each tick may run, like an AlarmManager window: a tick due at T
+             * runs somewhere in [T, T + toleranceMs]. Tasks whose windows overlap share
+             * one wakeup instead of waking the worker separately (see getWakeupsSaved()).
+             * 0, the default, keeps an exact timer per task.
+             *
+             * Slack used shows up as lateness in the latency metrics.
+             */
+            public Builder toleranceMs(long toleranceMs) {
+                if (toleranceMs < 0) {
+                    throw new IllegalArgumentException("Invalid tolerance: " + toleranceMs);
+                }
+                this.toleranceMs = toleranceMs;
+                return this;
+            }
+
+            /**
+             * Run callbacks on the MCT7 worker thread that fired the timer, with no
+             * main-thread hop. For short, non-UI work (e.g. a SharedPreferences write);
+             * a slow callback delays other timers on that worker.
+             */
+            public Builder onWorkerThread() {
+                this.target = Dispatcher.IMMEDIATE;
+                return this;
+            }
+
+            /**
+             * Run callbacks on a caller-provided executor: an I/O pool, or a Looper
+             * through MCT7Android.executor(looper).
+             */
+            public Builder executeOn(Executor executor) {
+                if (executor == null) {
+                    throw new IllegalArgumentException("Executor cannot be null");
+                }
+                this.target = executor::execute;
+                return this;
+            }
+
+            /**
+             * Scheduling class, see {@link Priority}. A HIGH task with a tolerance only
+             * shares wakeups with other HIGH tasks.
+             */
+            public Builder priority(Priority priority) {
+                if (priority == null) {
+                    throw new IllegalArgumentException("Priority cannot be null");
+                }
+                this.priority = priority;
+                return this;
+            }
+
+            /**
+             * Must fire even while the device sleeps (e.g. a service heartbeat under Doze):
+             * route the task through the alarm engine, whatever its interval, once one is
+             * installed with {@link MCT7#setAlarmEngine(TimerEngine, long)}. Ignored otherwise.
+             *
+             * The alarm tier has neither tolerance windows nor a priority lane, and Android
+             * rate-limits its alarms in Doze: meant for waits of a minute or more. Combined
+             * with toleranceMs() or Priority.HIGH, build() throws rather than drop them.
+             */
+            public Builder allowWhileIdle() {
+                this.allowWhileIdle = true;
+                return this;
+            }
+
+            /**
+             * @throws IllegalArgumentException if allowWhileIdle() is combined with a tolerance or Priority.HIGH
+             */
+            public Options build() {
+                if (allowWhileIdle && toleranceMs > 0) {
+                    throw new IllegalArgumentException("allowWhileIdle() tasks can't have a tolerance: " + toleranceMs);
+                }
+                if (allowWhileIdle && priority == Priority.HIGH) {
+                    throw new IllegalArgumentException("allowWhileIdle() tasks can't be Priority.HIGH");
+                }
+                return new Options(this);
+            }
+        }
+    }
+
+    /**
+     * Point-in-time latency metrics for the tasks of one tag, see {@link #enableMetrics(long)}.
+     * All durations are in microseconds.
+     */
+    public static final class MetricsSnapshot {
+        public final String tag;
+        /** Ticks whose lateness was measured */
+        public final long tickCount;
+        /** Worker pickup time minus intended fire time */
+        public final long latenessP50Micros;
+        public final long latenessP99Micros;
+        public final long latenessMaxMicros;
+        /** Main-thread execution time minus worker pickup time (time spent in the main queue) */
+        public final long mainQueueDelayP50Micros;
+        public final long mainQueueDelayP99Micros;
+        public final long mainQueueDelayMaxMicros;
+        /** Ticks that reached the main thread later than the overdue threshold */
+        public final long overdueCount;
+        /** Commands waiting in the engine when the snapshot was taken, -1 if unknown */
+        public final int engineQueueDepth;
+
+        MetricsSnapshot(String tag, LatencyHistogram lateness, LatencyHistogram mainQueueDelay,
+                        long overdueCount, int engineQueueDepth) {
+            this.tag = tag;
+            this.tickCount = lateness.count();
+            this.latenessP50Micros = lateness.percentile(50);
+            this.latenessP99Micros = lateness.percentile(99);
+            this.latenessMaxMicros = lateness.max();
+            this.mainQueueDelayP50Micros = mainQueueDelay.percentile(50);
+            this.mainQueueDelayP99Micros = mainQueueDelay.percentile(99);
+            this.mainQueueDelayMaxMicros = mainQueueDelay.max();
+            this.overdueCount = overdueCount;
+            this.engineQueueDepth = engineQueueDepth;
+        }
+
+        @Override
+        public String toString() {
+            return "MCT7[" + tag + "] ticks=" + tickCount
+                    + " late p50/p99/max=" + latenessP50Micros + "/" + latenessP99Micros
+                    + "/" + latenessMaxMicros + "us"
+                    + " mainQueue p50/p99/max=" + mainQueueDelayP50Micros + "/"
+                    + mainQueueDelayP99Micros + "/" + mainQueueDelayMaxMicros + "us"
+                    + " overdue=" + overdueCount + " engineQueue=" + engineQueueDepth;
+        }
+    }
+
+    /**
+     * Scheduling backend, selected once at init().
+     */
+    public enum Engine {
+        /** Elastic ScheduledThreadPoolExecutor (0-2 threads). O(log n) schedule/cancel. The default. */
+        EXECUTOR,
+
+        /**
+         * Hashed hierarchical timing wheel. O(1) schedule/cancel, no per-schedule
+         * ScheduledFutureTask. Prefer it when registering many short-lived
+         * debounce/timeout tasks.
+         */
+        TIMING_WHEEL
+    }
+
+    // ==================== Constants ====================
+
+    /** Use this for tasks that should run indefinitely until cancelled */
+    public static final int INFINITE = -1;
+
+    private static final String DEFAULT_TAG = "";
+
+    /** Unknown timestamp in the latency metrics (any long is a valid nanoTime) */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // ==================== Singleton ====================
+
+    private static volatile MCT7 instance;
+
+    public static MCT7 get() {
+        if (instance == null) {
+            throw new IllegalStateException("MCT7 not initialized. Call MCT7Android.init() in Application.onCreate()");
+        }
+        return instance;
+    }
+
+    /**
+     * Initialize MCT7 with a built-in scheduling engine and a callback dispatcher.
+     * Ignored if MCT7 is already initialized.
+     *
+     * {@link Priority#HIGH} tasks get a second engine of the same kind as their lane.
+     * Both engines are elastic, so the lane holds no thread while no HIGH task is due.
+     */
+    public static synchronized void init(Engine engine, Dispatcher dispatcher) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher cannot be null");
+        }
+        if (instance == null) {
+            instance = new MCT7(createEngine(engine), createEngine(engine), Clock.MONOTONIC, dispatcher);
+        }
+    }
+
+    /**
+     * Initialize MCT7 with a custom engine (e.g. the Android adapter's Looper engine).
+     * {@link Priority#HIGH} tasks share it, so they only get front-of-queue dispatch.
+     * Ignored if MCT7 is already initialized.
+     */
+    public static synchronized void init(TimerEngine engine, Dispatcher dispatcher) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher cannot be null");
+        }
+        if (instance == null) {
+            instance = new MCT7(engine, Clock.MONOTONIC, dispatcher);
+        } else {
+            engine.shutdown(); // Not used - don't leak its thread
+        }
+    }
+
+    /**
+     * Initialize MCT7 on virtual time, for local (JVM) unit tests.
+     * Timers only fire when the scheduler is advanced, and callbacks run inline.
+     * Ignored if MCT7 is already initialized - call shutdown() between tests.
+     */
+    public static synchronized void initVirtual(VirtualTimeScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        if (instance == null) {
+            instance = new MCT7(scheduler, scheduler, Dispatcher.IMMEDIATE);
+        }
+    }
+
+    /**
+     * Shutdown the scheduler completely.
+     * Call in Application.onTerminate() if needed.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.dispose();
+            instance = null;
+        }
+    }
+
+    // ==================== Task Class ====================
+
+    private static class Task {
+        private static final AtomicIntegerFieldUpdater<Task> FIRED_TICKS =
+                AtomicIntegerFieldUpdater.newUpdater(Task.class, "firedTicks");
+
+        final int id;
+        final String tag;
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        volatile TimerEngine.Handle handle; // Set right after the task is armed on the engine
+
+        // Created once per task and reused for every tick, so the tick path doesn't allocate
+        Runnable workerTick; // Runs on the engine's worker thread
+        Runnable dispatch;   // Runs on the task's target (the main thread by default)
+
+        // Set before registration for grouped tasks
+        TaskGroup group;
+        Object retained;     // The callback, held strongly while a grouped task is live
+
+        // For cycle tasks
+        final WeakReference<CycleTicker> cycleTickerRef;
+        final AtomicInteger remainingTicks;
+        final boolean isInfinite;
+        final int repeatCount;
+        final OverflowPolicy overflowPolicy;
+        volatile long intervalMs;   // Changed by reschedule(), under the task's lock
+        volatile boolean paused;    // Timer stopped by pause(), under the task's lock
+        // Worker side; atomic because after a reschedule the old timer's last run can overlap the new timer
+        volatile int firedTicks;
+        int consumedTicks;          // Target only, one dispatch at a time; firedTicks - consumedTicks are pending
+        final AtomicBoolean inFlight = new AtomicBoolean(false); // A dispatch is queued or running
+        volatile boolean finished;  // Worker fired the last tick; onComplete follows its delivery
+
+        // Latency metrics, only maintained while metrics are enabled
+        volatile long intervalNanos;       // 0 for delayed tasks
+        long dueNanos = NO_TIME;           // Worker only: when the next tick is intended to fire
+        long postedNanos = NO_TIME;        // Pickup time of the tick that queued the current dispatch
+        long postedDueNanos = NO_TIME;     // ... and its intended fire time. Both published by dispatch()
+
+        // For delayed tasks
+        final WeakReference<DelayedTask> delayedTaskRef;
+
+        final Dispatcher target; // Where callbacks run
+        final boolean urgent;    // Priority.HIGH: dispatched at the front of the target's queue
+        final long toleranceMs;  // > 0: armed through the wakeup batcher
+        final boolean allowWhileIdle;
+
+        // Constructor for cycle tasks
+        Task(int id, String tag, CycleTicker ticker, int ticks, long intervalMs, Options options,
+             Dispatcher target, ReferenceQueue<Object> collected) {
+            this.id = id;
+            this.tag = tag;
+            this.target = target;
+            this.urgent = options.priority == Priority.HIGH;
+            this.toleranceMs = options.toleranceMs;
+            this.allowWhileIdle = options.allowWhileIdle;
+            this.cycleTickerRef = new CallbackRef<>(ticker, this, collected);
+            this.remainingTicks = new AtomicInteger(ticks);
+            this.isInfinite = (ticks == INFINITE);
+            this.repeatCount = ticks;
+            this.overflowPolicy = options.overflowPolicy;
+            this.intervalMs = intervalMs;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+            this.delayedTaskRef = null;
+        }
+
+        // Constructor for delayed tasks
+        Task(int id, String tag, DelayedTask task, Options options, Dispatcher target,
+             ReferenceQueue<Object> collected) {
+            this.id = id;
+            this.tag = tag;
+            this.target = target;
+            this.urgent = options.priority == Priority.HIGH;
+            this.toleranceMs = options.toleranceMs;
+            this.allowWhileIdle = options.allowWhileIdle;
+            this.delayedTaskRef = new CallbackRef<>(task, this, collected);
+            this.cycleTickerRef = null;
+            this.remainingTicks = null;
+            this.isInfinite = false;
+            this.repeatCount = 1;
+            this.overflowPolicy = OverflowPolicy.QUEUE;
+            this.intervalMs = 0;
+            this.intervalNanos = 0;
+        }
+
+        void attach(TimerEngine.Handle handle) {
+            this.handle = handle;
+            // A fast task may have finished, or been cancelled or paused, before its handle was known
+            if (isCancelled() || finished || paused) {
+                handle.cancel();
+            }
+        }
+
+        void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                stopTimer();
+            }
+        }
+
+        /**
+         * Natural end of a cycle: stop the timer but let pending ticks and onComplete through.
+         */
+        void finish() {
+            finished = true;
+            stopTimer();
+        }
+
+        void stopTimer() {
+            TimerEngine.Handle h = handle;
+            if (h != null) {
+                h.cancel(); // Don't interrupt if running
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        boolean isCycle() {
+            return cycleTickerRef != null;
+        }
+
+        /**
+         * Worker thread: count a fired tick.
+         */
+        void fired() {
+            FIRED_TICKS.incrementAndGet(this);
+        }
+
+        /**
+         * Worker thread, right before dispatch: remember when this dispatch was queued.
+         */
+        void markPosted(long pickupNanos) {
+            postedDueNanos = (dueNanos != NO_TIME) ? dueNanos : pickupNanos;
+            postedNanos = pickupNanos;
+        }
+
+        /**
+         * Worker thread: hand the dispatch Runnable to the target.
+         */
+        void post() {
+            if (urgent) {
+                target.dispatchUrgent(dispatch);
+            } else {
+                target.dispatch(dispatch);
+            }
+        }
+    }
+
+    /**
+     * Weak reference to a task's callback that leads back to the task once the
+     * callback is collected and the reference comes out of the ReferenceQueue.
+     */
+    private static final class CallbackRef<T> extends WeakReference<T> {
+        final Task task;
+
+        CallbackRef(T callback, Task task, ReferenceQueue<Object> queue) {
+            super(callback, queue);
+            this.task = task;
+        }
+    }
+
+    // ==================== Task Groups ====================
+
+    /**
+     * Tasks that belong to one owner (a Service, an Activity...), created with {@link #newGroup(String)}.
+     *
+     * WHY?
+     * - MCT7 holds plain callbacks weakly, so an anonymous ticker that only MCT7 sees
+     *   can be collected and silently stop. A group holds its tasks' callbacks strongly
+     *   until they finish or the group is cancelled.
+     * - cancel(), pause() and resume() touch only the group's own tasks, however many
+     *   other tasks are registered.
+     *
+     * The group's name is the default tag of its tasks, so metrics and cancelByTag() still apply.
+     * Once cancelled, a group stays cancelled: new tasks are ignored and return -1.
+     * On Android, MCT7Android.groupOf(lifecycleOwner) cancels the group on ON_DESTROY.
+     */
+    public static final class TaskGroup {
+        private final MCT7 mct7;
+        private final String name;
+        private final Set<Task> tasks = ConcurrentHashMap.newKeySet(); // Live members
+        private volatile boolean cancelled;
+        private volatile boolean paused;
+
+        private TaskGroup(MCT7 mct7, String name) {
+            this.mct7 = mct7;
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Schedule a repeating task in this group, tagged with the group's name.
+         */
+        public int cycle(int repeatCount, long intervalMs, CycleTicker ticker) {
+            return cycle(repeatCount, intervalMs, 0, null, Options.DEFAULT, ticker);
+        }
+
+        /**
+         * Schedule a repeating task in this group, see {@link MCT7#cycle(int, long, long, String, Options, CycleTicker)}.
+         * A null tag means the group's name.
+         */
+        public int cycle(int repeatCount, long intervalMs, long initialDelayMs, String tag,
+                         Options options, CycleTicker ticker) {
+            return mct7.scheduleCycle(repeatCount, intervalMs, initialDelayMs,
+                    (tag != null) ? tag : name, options, ticker, this);
+        }
+
+        /**
+         * Schedule a one-shot delayed task in this group, tagged with the group's name.
+         */
+        public int delay(long delayMs, DelayedTask task) {
+            return delay(delayMs, null, Options.DEFAULT, task);
+        }
+
+        /**
+         * Schedule a one-shot delayed task in this group. A null tag means the group's name.
+         */
+        public int delay(long delayMs, String tag, Options options, DelayedTask task) {
+            return mct7.scheduleDelay(delayMs, (tag != null) ? tag : name, options, task, this);
+        }
+
+        /**
+         * Create a debouncer in this group, see {@link MCT7#debouncer}. A null tag means the group's name.
+         */
+        public RateLimiter debouncer(String tag, long windowMs, Options options, DelayedTask action) {
+            return mct7.newRateLimiter(RateLimiter.Kind.DEBOUNCE, (tag != null) ? tag : name,
+                    windowMs, options, action, this);
+        }
+
+        /**
+         * Create a throttler in this group, see {@link MCT7#throttler}. A null tag means the group's name.
+         */
+        public RateLimiter throttler(String tag, long windowMs, Options options, DelayedTask action) {
+            return mct7.newRateLimiter(RateLimiter.Kind.THROTTLE, (tag != null) ? tag : name,
+                    windowMs, options, action, this);
+        }
+
+        /**
+         * Create a sampler in this group, see {@link MCT7#sampler}. A null tag means the group's name.
+         */
+        public RateLimiter sampler(String tag, long periodMs, Options options, DelayedTask action) {
+            return mct7.newRateLimiter(RateLimiter.Kind.SAMPLE, (tag != null) ? tag : name,
+                    periodMs, options, action, this);
+        }
+
+        /**
+         * Cancel every task of the group and release their callbacks.
+         * @return Number of tasks that were still live
+         */
+        public int cancel() {
+            cancelled = true;
+            int count = 0;
+            for (Task task : tasks) {
+                if (mct7.cancelTask(task)) {
+                    count++;
+                }
+            }
+            tasks.clear();
+            return count;
+        }
+
+        /**
+         * Pause the group's cycle tasks (see {@link MCT7#pause(int)}), including ones added later.
+         */
+        public void pause() {
+            paused = true;
+            for (Task task : tasks) {
+                mct7.pauseTask(task);
+            }
+        }
+
+        /**
+         * Resume the group's paused cycle tasks.
+         */
+        public void resume() {
+            paused = false;
+            for (Task task : tasks) {
+                mct7.resumeTask(task);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * Number of live tasks in the group.
+         */
+        public int size() {
+            return tasks.size();
+        }
+
+        /**
+         * Registration: join the group, or back out if it was cancelled meanwhile.
+         */
+        private void add(Task task) {
+            tasks.add(task);
+            if (cancelled) {
+                mct7.cancelTask(task); // cancel() may have iterated before we were added
+            } else if (paused) {
+                mct7.pauseTask(task);
+            }
+        }
+    }
+
+    // ==================== Rate Limiters ====================
+
+    /**
+     * Rate limiter for an action triggered far more often than it should run (a notification
+     * update per location fix, a UI refresh, a recovery retry), created with
+     * {@link #debouncer}, {@link #throttler} or {@link #sampler}.
+     *
+     * - Debouncer: runs once the triggers have stopped for a full window.
+     * - Throttler: runs on the first trigger, then at most once per window while triggers
+     *   keep coming - the last of them is never lost, it runs when its window ends.
+     * - Sampler: runs one window after the first trigger, with whatever happened meanwhile.
+     *
+     * WHY?
+     * - A cancel() + delay() per trigger registers, indexes and allocates a whole task each
+     *   time. A limiter is one task registered once: trigger() is an atomic update, and its
+     *   timer is armed at most once per window, however many triggers arrive.
+     *
+     * The action takes no argument: it reads the latest state itself (e.g. the last fix).
+     * trigger() may be called from any thread; the action runs on the target of its
+     * {@link Options}, never twice at once. A limiter is an active task under its tag until
+     * it is cancelled - by cancel(), cancelByTag(), cancelAll() or its group - so cancel it
+     * with its owner, like any tagged task.
+     */
+    public static final class RateLimiter {
+        private static final AtomicIntegerFieldUpdater<RateLimiter> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(RateLimiter.class, "state");
+        private static final int IDLE = 0;    // Timer not armed
+        private static final int ARMED = 1;   // Window running
+        private static final int PENDING = 2; // Throttler only: window running, a trigger is waiting for its end
+
+        enum Kind { DEBOUNCE, THROTTLE, SAMPLE }
+
+        private final MCT7 mct7;
+        private final Kind kind;
+        private final Task task;
+        private final DelayedTask action; // The engine entry reaches it through us, so it lives until cancelled
+        private final long windowMs;
+        private final long windowNanos;
+        private volatile int state = IDLE;
+        private volatile long lastTriggerNanos; // Debouncer only
+
+        private RateLimiter(MCT7 mct7, Kind kind, Task task, DelayedTask action, long windowMs) {
+            this.mct7 = mct7;
+            this.kind = kind;
+            this.task = task;
+            this.action = action;
+            this.windowMs = windowMs;
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        }
+
+        /**
+         * Note that the action is wanted. Never blocks, never allocates; ignored once cancelled.
+         */
+        public void trigger() {
+            if (task.isCancelled()) {
+                return;
+            }
+            switch (kind) {
+                case DEBOUNCE:
+                    lastTriggerNanos = mct7.clock.nanos();
+                    if (STATE.compareAndSet(this, IDLE, ARMED)) {
+                        mct7.armDelay(task, windowMs);
+                    }
+                    break;
+                case THROTTLE:
+                    while (true) {
+                        int s = state;
+                        if (s == IDLE && STATE.compareAndSet(this, IDLE, ARMED)) {
+                            post(); // Leading edge
+                            mct7.armDelay(task, windowMs);
+                            return;
+                        }
+                        if (s == PENDING || (s == ARMED && STATE.compareAndSet(this, ARMED, PENDING))) {
+                            return;
+                        }
+                    }
+                case SAMPLE:
+                default:
+                    if (STATE.compareAndSet(this, IDLE, ARMED)) {
+                        mct7.armDelay(task, windowMs);
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Stop the limiter: a waiting run is dropped and later triggers are ignored.
+         * @return true if it was still live
+         */
+        public boolean cancel() {
+            return mct7.cancelTask(task);
+        }
+
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        public int getTaskId() {
+            return task.id;
+        }
+
+        /**
+         * Worker thread: the window ended.
+         */
+        private void onWindowEnd() {
+            mct7.reclaimCollected();
+            if (task.isCancelled()) {
+                return;
+            }
+            switch (kind) {
+                case DEBOUNCE:
+                    long seen = lastTriggerNanos;
+                    long quietNanos = mct7.clock.nanos() - seen;
+                    if (quietNanos < windowNanos) {
+                        // Triggered meanwhile: wait out the rest of the window from the last trigger
+                        mct7.armDelay(task, TimeUnit.NANOSECONDS.toMillis(windowNanos - quietNanos + 999_999));
+                        return;
+                    }
+                    state = IDLE;
+                    post();
+                    // A trigger between the read above and the reset saw ARMED and left arming to us
+                    if (lastTriggerNanos != seen && STATE.compareAndSet(this, IDLE, ARMED)) {
+                        mct7.armDelay(task, windowMs);
+                    }
+                    break;
+                case THROTTLE:
+                    while (true) {
+                        if (STATE.compareAndSet(this, PENDING, ARMED)) {
+                            post(); // Trailing edge, which starts a window of its own
+                            mct7.armDelay(task, windowMs);
+                            return;
+                        }
+                        if (STATE.compareAndSet(this, ARMED, IDLE)) {
+                            return;
+                        }
+                    }
+                case SAMPLE:
+                default:
+                    state = IDLE;
+                    post();
+                    break;
+            }
+        }
+
+        /**
+         * Queue the action unless a run is already queued: that one reads the latest state anyway.
+         */
+        private void post() {
+            if (task.inFlight.compareAndSet(false, true)) {
+                task.post();
+            }
+        }
+
+        /**
+         * Target thread: run the action.
+         */
+        private void deliver() {
+            task.inFlight.set(false); // A trigger from inside the action may queue the next run
+            if (!task.isCancelled()) {
+                action.onExecute();
+            }
+        }
+    }
+
+    // ==================== Metrics ====================
+
+    /**
+     * Per-tag histograms. Replaced as a whole by enableMetrics(), so there is nothing to reset.
+     */
+    private static final class Metrics {
+        final long overdueThresholdNanos;
+        final ConcurrentHashMap<String, TagMetrics> byTag = new ConcurrentHashMap<>();
+
+        Metrics(long overdueThresholdMs) {
+            this.overdueThresholdNanos = TimeUnit.MILLISECONDS.toNanos(overdueThresholdMs);
+        }
+
+        TagMetrics forTag(String tag) {
+            TagMetrics tagMetrics = byTag.get(tag); // No lambda on the hot path once the tag exists
+            return (tagMetrics != null) ? tagMetrics : byTag.computeIfAbsent(tag, t -> new TagMetrics());
+        }
+
+        /**
+         * Worker thread: a task's timer fired at nowNanos.
+         */
+        long recordPickup(Task task, long nowNanos) {
+            if (task.dueNanos != NO_TIME) {
+                forTag(task.tag).lateness.record(toMicros(nowNanos - task.dueNanos));
+            }
+            return nowNanos;
+        }
+
+        /**
+         * Main thread: a dispatch queued by the worker is running at nowNanos.
+         */
+        void recordDelivery(Task task, long nowNanos) {
+            if (task.postedNanos == NO_TIME) {
+                return; // Queued while metrics were disabled
+            }
+            TagMetrics tagMetrics = forTag(task.tag);
+            tagMetrics.mainQueueDelay.record(toMicros(nowNanos - task.postedNanos));
+            if (nowNanos - task.postedDueNanos > overdueThresholdNanos) {
+                tagMetrics.overdue.increment();
+            }
+        }
+
+        private static long toMicros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+
+    private static final class TagMetrics {
+        final LatencyHistogram lateness = new LatencyHistogram();
+        final LatencyHistogram mainQueueDelay = new LatencyHistogram();
+        final LongAdder overdue = new LongAdder();
+    }
+
+    // ==================== Instance Fields ====================
+
+    private final TimerEngine engine;
+    private final WakeupBatcher batcher; // Tasks with a tolerance share wakeups through it
+    // Lane for Priority.HIGH tasks; the same engine and batcher when there is no separate lane
+    private final TimerEngine priorityEngine;
+    private final WakeupBatcher priorityBatcher;
+    // Deep-sleep-safe tier (on Android: AlarmManager), null until setAlarmEngine()
+    private volatile TimerEngine alarmEngine;
+    private volatile long alarmMinDelayMs;
+    private final Clock clock;
+    private final Dispatcher dispatcher; // On Android: Handler.post on the main Looper
+    private final ConcurrentHashMap<Integer, Task> tasks;
+    // Secondary indexes, kept in sync by registerTask()/unindex():
+    // tag -> live tasks with that tag, and callback (by identity, weakly) -> its live tasks
+    private final ConcurrentHashMap<String, Set<Task>> tasksByTag;
+    private final WeakIdentityIndex<Task> tasksByTicker;
+    private final WeakIdentityIndex<Task> tasksByDelayedTask;
+    private final AtomicInteger taskIdGenerator;
+    // Callbacks cleared by the GC; their tasks are reclaimed by reclaimCollected()
+    private final ReferenceQueue<Object> collectedCallbacks = new ReferenceQueue<>();
+    // Ticks merged or discarded by OverflowPolicy.COALESCE / DROP since init
+    private final LongAdder coalescedTicks = new LongAdder();
+    private final LongAdder droppedTicks = new LongAdder();
+    private volatile Metrics metrics; // null while metrics are disabled
+
+    // ==================== Constructor ====================
+
+    /**
+     * Package-private for local unit tests, which supply their own engine and "main thread".
+     */
+    MCT7(TimerEngine engine, Dispatcher dispatcher) {
+        this(engine, Clock.MONOTONIC, dispatcher);
+    }
+
+    MCT7(TimerEngine engine, Clock clock, Dispatcher dispatcher) {
+        this(engine, engine, clock, dispatcher);
+    }
+
+    MCT7(TimerEngine engine, TimerEngine priorityEngine, Clock clock, Dispatcher dispatcher) {
+        this.engine = engine;
+        this.batcher = new WakeupBatcher(engine, clock);
+        this.priorityEngine = priorityEngine;
+        this.priorityBatcher = (priorityEngine != engine) ? new WakeupBatcher(priorityEngine, clock) : batcher;
+        this.clock = clock;
+        this.dispatcher = dispatcher;
+        this.tasks = new ConcurrentHashMap<>();
+        this.tasksByTag = new ConcurrentHashMap<>();
+        this.tasksByTicker = new WeakIdentityIndex<>();
+        this.tasksByDelayedTask = new WeakIdentityIndex<>();
+        this.taskIdGenerator = new AtomicInteger(0);
+    }
+
+    /**
+     * Cancel everything and stop the engine. Package-private for the JMH suite,
+     * which creates its own instances instead of the singleton.
+     */
+    void dispose() {
+        cancelAll();
+        engine.shutdown();
+        if (priorityEngine != engine) {
+            priorityEngine.shutdown();
+        }
+        TimerEngine alarm = alarmEngine;
+        if (alarm != null) {
+            alarm.shutdown();
+        }
+    }
+
+    private static TimerEngine createEngine(Engine engine) {
+        switch (engine) {
+            case TIMING_WHEEL:
+                return new TimingWheelTimerEngine(Clock.MONOTONIC);
+            case EXECUTOR:
+            default:
+                return new ExecutorTimerEngine();
+        }
+    }
+
+    // ==================== Public API ====================
+
+    /**
+     * Schedule a repeating task.
+     *
+     * Note: Uses fixed-delay scheduling (not fixed-rate). The interval is measured
+     * from the END of each execution, not from start-to-start. This prevents
+     * burst executions when Android processes transition from cached state.
+     *
+     * @param repeatCount Number of times to execute (use INFINITE for endless)
+     * @param intervalMs Delay between end of one execution and start of next (milliseconds)
+     * @param ticker Callback for each tick and completion
+     * @return Task ID for later reference/cancellation
+     */
+    public int cycle(int repeatCount, long intervalMs, CycleTicker ticker) {
+        return cycle(repeatCount, intervalMs, DEFAULT_TAG, ticker);
+    }
+
+    /**
+     * Schedule a repeating task with a tag.
+     * Note: Uses fixed-delay scheduling (not fixed-rate).
+     * The interval is measured from the END of each execution, not from start-to-start.
+     * This prevents burst executions when Android processes transition from cached state.
+     *
+     * @param repeatCount Number of times to execute (use INFINITE for endless)
+     * @param intervalMs Delay between end of one execution and start of next (milliseconds)
+     * @param tag Optional tag for grouping
+     * @param ticker Callback for each tick and completion
+     * @return Task ID for later reference/cancellation
+     */
+    public int cycle(int repeatCount, long intervalMs, String tag, CycleTicker ticker) {
+        return cycle(repeatCount, intervalMs, 0, tag, ticker);
+    }
+
+    /**
+     * Schedule a repeating task with initial delay.
+     */
+    public int cycle(int repeatCount, long intervalMs, long initialDelayMs, String tag, CycleTicker ticker) {
+        return cycle(repeatCount, intervalMs, initialDelayMs, tag, Options.DEFAULT, ticker);
+    }
+
+    /**
+     * Schedule a repeating task with initial delay and per-task options
+     * (e.g. the overflow policy for ticks that pile up behind a busy main thread,
+     * or a tolerance that lets ticks share wakeups with other tasks).
+     */
+    public int cycle(int repeatCount, long intervalMs, long initialDelayMs, String tag,
+                     Options options, CycleTicker ticker) {
+        return scheduleCycle(repeatCount, intervalMs, initialDelayMs, tag, options, ticker, null);
+    }
+
+    private int scheduleCycle(int repeatCount, long intervalMs, long initialDelayMs, String tag,
+                              Options options, CycleTicker ticker, TaskGroup group) {
+        if (ticker == null) {
+            throw new IllegalArgumentException("Ticker cannot be null");
+        }
+        if (repeatCount == 0) {
+            return -1; // No-op
+        }
+        if (repeatCount < INFINITE) {
+            throw new IllegalArgumentException("Invalid repeat count: " + repeatCount);
+        }
+        if (group != null && group.cancelled) {
+            return -1; // Owner is gone
+        }
+
+        final int taskId = taskIdGenerator.incrementAndGet();
+        final String safeTag = (tag != null) ? tag : DEFAULT_TAG;
+
+        final Options safeOptions = (options != null) ? options : Options.DEFAULT;
+
+        Task task = new Task(taskId, safeTag, ticker, repeatCount, intervalMs, safeOptions,
+                targetOf(safeOptions), collectedCallbacks);
+        task.workerTick = () -> onCycleTick(task);
+        task.dispatch = () -> deliverTicks(task);
+        task.group = group;
+        task.retained = (group != null) ? ticker : null;
+        registerTask(task);
+
+        armCycle(task, initialDelayMs);
+
+        return taskId;
+    }
+
+    /**
+     * Schedule a one-shot delayed task.
+     *
+     * @param delayMs Delay before execution in milliseconds
+     * @param task Callback to execute
+     * @return Task ID for cancellation
+     */
+    public int delay(long delayMs, DelayedTask task) {
+        return delay(delayMs, DEFAULT_TAG, task);
+    }
+
+    /**
+     * Schedule a one-shot delayed task with a tag.
+     */
+    public int delay(long delayMs, String tag, DelayedTask task) {
+        return delay(delayMs, tag, Options.DEFAULT, task);
+    }
+
+    /**
+     * Schedule a one-shot delayed task with per-task options.
+     * Tolerance and execution target apply; the overflow policy is for cycles.
+     */
+    public int delay(long delayMs, String tag, Options options, DelayedTask task) {
+        return scheduleDelay(delayMs, tag, options, task, null);
+    }
+
+    private int scheduleDelay(long delayMs, String tag, Options options, DelayedTask task, TaskGroup group) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (group != null && group.cancelled) {
+            return -1; // Owner is gone
+        }
+
+        final int taskId = taskIdGenerator.incrementAndGet();
+        final String safeTag = (tag != null) ? tag : DEFAULT_TAG;
+
+        final Options safeOptions = (options != null) ? options : Options.DEFAULT;
+
+        Task taskObj = new Task(taskId, safeTag, task, safeOptions, targetOf(safeOptions),
+                collectedCallbacks);
+        taskObj.dueNanos = dueAfter(delayMs);
+        taskObj.workerTick = () -> onDelayElapsed(taskObj);
+        taskObj.dispatch = () -> deliverDelayed(taskObj);
+        taskObj.group = group;
+        taskObj.retained = (group != null) ? task : null;
+        registerTask(taskObj);
+
+        armDelay(taskObj, delayMs);
+
+        return taskId;
+    }
+
+    /**
+     * Cancel a specific task by ID.
+     *
+     * @param taskId The task ID returned by cycle() or delay()
+     * @return true if task was found and cancelled
+     */
+    public boolean cancel(int taskId) {
+        Task task = removeTask(taskId);
+        if (task != null) {
+            task.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Change the interval of a running cycle task in place.
+     *
+     * The task keeps its ID, tag, callback and remaining ticks, and is not re-registered:
+     * only its timer is re-armed, so the next tick is due newIntervalMs from now.
+     * A paused task takes the new interval when resumed.
+     *
+     * @return true if the task is a live cycle task
+     */
+    public boolean reschedule(int taskId, long newIntervalMs) {
+        if (newIntervalMs <= 0) {
+            throw new IllegalArgumentException("Invalid interval: " + newIntervalMs);
+        }
+        Task task = tasks.get(taskId);
+        if (task == null || !task.isCycle()) {
+            return false;
+        }
+        synchronized (task) {
+            if (task.isCancelled() || task.finished) {
+                return false;
+            }
+            task.intervalMs = newIntervalMs;
+            task.intervalNanos = TimeUnit.MILLISECONDS.toNanos(newIntervalMs);
+            if (!task.paused) {
+                task.stopTimer();
+                armCycle(task, newIntervalMs);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop a cycle task's timer without cancelling it. The task keeps its ID, tag and
+     * remaining ticks, and still counts as active. A tick that already fired is still delivered.
+     *
+     * @return true if the task was running and is now paused
+     */
+    public boolean pause(int taskId) {
+        Task task = tasks.get(taskId);
+        return task != null && pauseTask(task);
+    }
+
+    private boolean pauseTask(Task task) {
+        if (!task.isCycle()) {
+            return false;
+        }
+        synchronized (task) {
+            if (task.isCancelled() || task.finished || task.paused) {
+                return false;
+            }
+            task.paused = true;
+            task.stopTimer();
+        }
+        return true;
+    }
+
+    /**
+     * Restart a paused cycle task. The next tick is due one full interval from now.
+     *
+     * @return true if the task was paused and is now running again
+     */
+    public boolean resume(int taskId) {
+        Task task = tasks.get(taskId);
+        return task != null && resumeTask(task);
+    }
+
+    private boolean resumeTask(Task task) {
+        if (!task.isCycle()) {
+            return false;
+        }
+        synchronized (task) {
+            if (task.isCancelled() || task.finished || !task.paused) {
+                return false;
+            }
+            task.paused = false;
+            armCycle(task, task.intervalMs);
+        }
+        return true;
+    }
+
+    /**
+     * Install a scheduling tier that keeps time through deep sleep, for waits the
+     * executor engines would miss: their threads freeze in Doze, and System.nanoTime
+     * stops while the CPU is suspended. On Android, MCT7Android.enableAlarmTier() installs
+     * an AlarmManager engine.
+     *
+     * Tasks armed from now on (including re-arms by reschedule()/resume()) go to it when
+     * their interval - or delay, for one-shot tasks - is at least minDelayMs, or when they
+     * were built with {@link Options.Builder#allowWhileIdle()}. Their IDs, tags and cancel
+     * APIs don't change. The tier is meant for few, long waits; ticks run on whatever
+     * thread it fires on.
+     *
+     * Ignored if an alarm engine is already installed, since tasks may be armed on it.
+     */
+    public synchronized void setAlarmEngine(TimerEngine engine, long minDelayMs) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (minDelayMs <= 0) {
+            throw new IllegalArgumentException("Invalid minimum delay: " + minDelayMs);
+        }
+        if (alarmEngine != null) {
+            if (alarmEngine != engine) {
+                engine.shutdown(); // Not used
+            }
+            return;
+        }
+        alarmMinDelayMs = minDelayMs; // Published by the volatile write below
+        alarmEngine = engine;
+    }
+
+    /**
+     * Create an empty task group for one owner, see {@link TaskGroup}.
+     *
+     * @param name Default tag of the group's tasks
+     */
+    public TaskGroup newGroup(String name) {
+        return new TaskGroup(this, (name != null) ? name : DEFAULT_TAG);
+    }
+
+    /**
+     * Create a limiter that runs the action once triggers have paused for windowMs,
+     * see {@link RateLimiter}.
+     */
+    public RateLimiter debouncer(String tag, long windowMs, DelayedTask action) {
+        return debouncer(tag, windowMs, Options.DEFAULT, action);
+    }
+
+    public RateLimiter debouncer(String tag, long windowMs, Options options, DelayedTask action) {
+        return newRateLimiter(RateLimiter.Kind.DEBOUNCE, tag, windowMs, options, action, null);
+    }
+
+    /**
+     * Create a limiter that runs the action on the first trigger and then at most once
+     * per windowMs, see {@link RateLimiter}.
+     */
+    public RateLimiter throttler(String tag, long windowMs, DelayedTask action) {
+        return throttler(tag, windowMs, Options.DEFAULT, action);
+    }
+
+    public RateLimiter throttler(String tag, long windowMs, Options options, DelayedTask action) {
+        return newRateLimiter(RateLimiter.Kind.THROTTLE, tag, windowMs, options, action, null);
+    }
+
+    /**
+     * Create a limiter that runs the action periodMs after the first trigger of each
+     * period, see {@link RateLimiter}.
+     */
+    public RateLimiter sampler(String tag, long periodMs, DelayedTask action) {
+        return sampler(tag, periodMs, Options.DEFAULT, action);
+    }
+
+    public RateLimiter sampler(String tag, long periodMs, Options options, DelayedTask action) {
+        return newRateLimiter(RateLimiter.Kind.SAMPLE, tag, periodMs, options, action, null);
+    }
+
+    private RateLimiter newRateLimiter(RateLimiter.Kind kind, String tag, long windowMs, Options options,
+                                       DelayedTask action, TaskGroup group) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("Invalid window: " + windowMs);
+        }
+
+        final int taskId = taskIdGenerator.incrementAndGet();
+        final String safeTag = (tag != null) ? tag : DEFAULT_TAG;
+        final Options safeOptions = (options != null) ? options : Options.DEFAULT;
+
+        Task task = new Task(taskId, safeTag, action, safeOptions, targetOf(safeOptions), collectedCallbacks);
+        RateLimiter limiter = new RateLimiter(this, kind, task, action, windowMs);
+        task.workerTick = limiter::onWindowEnd;
+        task.dispatch = limiter::deliver;
+        task.group = group;
+        if (group != null && group.cancelled) {
+            task.cancel(); // Owner is gone: a limiter that ignores its triggers
+            return limiter;
+        }
+        registerTask(task);
+        return limiter;
+    }
+
+    /**
+     * Check if a cycle task is paused (see {@link #pause(int)}).
+     */
+    public boolean isPaused(int taskId) {
+        Task task = tasks.get(taskId);
+        return task != null && task.paused;
+    }
+
+    /**
+     * Cancel a task by its callback reference.
+     * Single lookup in the callback index, no scan over all tasks.
+     */
+    public boolean cancel(CycleTicker ticker) {
+        if (ticker == null) return false;
+        return cancelTasks(tasksByTicker.get(ticker)); // There might be duplicates
+    }
+
+    /**
+     * Cancel a task by its callback reference.
+     */
+    public boolean cancel(DelayedTask delayedTask) {
+        if (delayedTask == null) return false;
+        return cancelTasks(tasksByDelayedTask.get(delayedTask));
+    }
+
+    /**
+     * Cancel all tasks with a specific tag.
+     * Useful for cleanup in Activity.onDestroy().
+     *
+     * Cost is proportional to the number of tasks with this tag,
+     * not to the total number of live tasks.
+     */
+    public int cancelByTag(String tag) {
+        if (tag == null) {
+            tag = DEFAULT_TAG;
+        }
+
+        Set<Task> tagged = tasksByTag.remove(tag);
+        if (tagged == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (Task task : tagged) {
+            // Only count tasks that were still live (not completed or cancelled meanwhile)
+            if (tasks.remove(task.id, task)) {
+                unindex(task);
+                task.cancel();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cancel all active tasks.
+     */
+    public void cancelAll() {
+        for (Task task : tasks.values()) {
+            task.cancel();
+            if (task.group != null) {
+                task.group.tasks.remove(task);
+            }
+        }
+        tasks.clear();
+        tasksByTag.clear();
+        tasksByTicker.clear();
+        tasksByDelayedTask.clear();
+    }
+
+    /**
+     * The clock this instance schedules against (virtual time under initVirtual()).
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the number of currently active tasks.
+     */
+    public int getActiveTaskCount() {
+        reclaimCollected();
+        return tasks.size();
+    }
+
+    /**
+     * Get the number of currently active tasks with a specific tag.
+     */
+    public int getActiveTaskCount(String tag) {
+        reclaimCollected();
+        Set<Task> tagged = tasksByTag.get(tag != null ? tag : DEFAULT_TAG);
+        return tagged != null ? tagged.size() : 0;
+    }
+
+    /**
+     * Number of ticks folded into a later tick by {@link OverflowPolicy#COALESCE}.
+     */
+    public long getCoalescedTickCount() {
+        return coalescedTicks.sum();
+    }
+
+    /**
+     * Number of ticks discarded by {@link OverflowPolicy#DROP}.
+     */
+    public long getDroppedTickCount() {
+        return droppedTicks.sum();
+    }
+
+    /**
+     * Worker wakeups avoided by letting tasks with a tolerance share one wakeup.
+     */
+    public long getWakeupsSaved() {
+        long saved = batcher.wakeupsSaved();
+        return (priorityBatcher != batcher) ? saved + priorityBatcher.wakeupsSaved() : saved;
+    }
+
+    /**
+     * Start recording per-tag latency metrics, discarding any earlier ones.
+     *
+     * For every tick three times are taken: when it was intended to fire, when the
+     * worker picked it up and when it ran on the main thread. They feed lock-free
+     * histograms, so recording adds no locks or allocation to the tick path.
+     *
+     * @param overdueThresholdMs A tick is counted as overdue when it runs on the main
+     *                           thread more than this long after its intended time
+     */
+    public void enableMetrics(long overdueThresholdMs) {
+        if (overdueThresholdMs < 0) {
+            throw new IllegalArgumentException("Invalid overdue threshold: " + overdueThresholdMs);
+        }
+        metrics = new Metrics(overdueThresholdMs);
+    }
+
+    /**
+     * Stop recording latency metrics and drop the recorded ones.
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * Latency metrics for one tag, or null if metrics are disabled or nothing was recorded.
+     */
+    public MetricsSnapshot getMetrics(String tag) {
+        Metrics m = metrics;
+        if (m == null) {
+            return null;
+        }
+        String safeTag = (tag != null) ? tag : DEFAULT_TAG;
+        TagMetrics tagMetrics = m.byTag.get(safeTag);
+        return (tagMetrics != null) ? snapshot(safeTag, tagMetrics) : null;
+    }
+
+    /**
+     * Latency metrics for every tag that recorded something (empty if metrics are disabled).
+     */
+    public Map<String, MetricsSnapshot> getMetrics() {
+        Metrics m = metrics;
+        if (m == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, MetricsSnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<String, TagMetrics> entry : m.byTag.entrySet()) {
+            snapshots.put(entry.getKey(), snapshot(entry.getKey(), entry.getValue()));
+        }
+        return snapshots;
+    }
+
+    private MetricsSnapshot snapshot(String tag, TagMetrics tagMetrics) {
+        return new MetricsSnapshot(tag, tagMetrics.lateness, tagMetrics.mainQueueDelay,
+                tagMetrics.overdue.sum(), engineQueueDepth());
+    }
+
+    private int engineQueueDepth() {
+        int depth = engine.pendingCount();
+        if (priorityEngine != engine) {
+            depth = addDepth(depth, priorityEngine.pendingCount());
+        }
+        TimerEngine alarm = alarmEngine;
+        return (alarm != null) ? addDepth(depth, alarm.pendingCount()) : depth;
+    }
+
+    private static int addDepth(int depth, int more) {
+        return (depth < 0 || more < 0) ? -1 : depth + more;
+    }
+
+    /**
+     * Check if a specific task is still active.
+     */
+    public boolean isActive(int taskId) {
+        Task task = tasks.get(taskId);
+        return task != null && !task.isCancelled();
+    }
+
+    // ==================== Tick Path ====================
+    // Steady state allocates nothing: the worker and main-thread Runnables are created
+    // once per task, and at most one dispatch per task sits in the main queue at a time.
+
+    /**
+     * Worker thread: a cycle task's timer fired.
+     */
+    private void onCycleTick(Task task) {
+        reclaimCollected();
+        if (task.isCancelled() || task.finished || task.paused) {
+            return;
+        }
+
+        if (task.cycleTickerRef.get() == null) {
+            // Callback was garbage collected (Activity destroyed) but not enqueued yet
+            removeTask(task.id);
+            task.cancel();
+            return;
+        }
+
+        Metrics m = metrics;
+        long pickupNanos = (m != null) ? m.recordPickup(task, clock.nanos()) : NO_TIME;
+
+        // Decrement and check completion
+        if (!task.isInfinite) {
+            int left = task.remainingTicks.decrementAndGet();
+            if (left < 0) {
+                return; // An overlapping run after a reschedule already fired the last tick
+            }
+            if (left == 0) {
+                removeTask(task.id);
+                task.finish();
+            }
+        }
+
+        task.fired();
+
+        // Post to the target only if no dispatch is in flight; otherwise the
+        // in-flight dispatch picks this tick up according to the overflow policy
+        if (task.inFlight.compareAndSet(false, true)) {
+            task.markPosted(pickupNanos);
+            task.post();
+        }
+
+        // Fixed delay: the next tick is due one interval after this run ends
+        task.dueNanos = (m != null) ? clock.nanos() + task.intervalNanos : NO_TIME;
+    }
+
+    /**
+     * Target thread: deliver pending ticks according to the task's overflow policy,
+     * then onComplete after the last one.
+     */
+    private void deliverTicks(Task task) {
+        Metrics m = metrics;
+        if (m != null) {
+            m.recordDelivery(task, clock.nanos());
+        }
+        CycleTicker callback = task.cycleTickerRef.get();
+        while (true) {
+            int fired = task.firedTicks;
+            int pending = fired - task.consumedTicks;
+            if (pending > 0) {
+                if (task.isCancelled() || callback == null) {
+                    task.inFlight.set(false);
+                    return;
+                }
+                deliverPending(task, callback, fired, pending);
+                continue;
+            }
+
+            task.inFlight.set(false);
+            // A tick may have fired after we read firedTicks but before the flag was cleared
+            if (task.firedTicks == task.consumedTicks || !task.inFlight.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void deliverPending(Task task, CycleTicker callback, int fired, int pending) {
+        switch (task.overflowPolicy) {
+            case COALESCE:
+                task.consumedTicks = fired;
+                if (pending > 1) {
+                    coalescedTicks.add(pending - 1);
+                }
+                callback.onTick(remainingAt(task, fired), pending - 1);
+                break;
+            case DROP:
+                int oldest = ++task.consumedTicks;
+                task.consumedTicks = fired;
+                if (pending > 1) {
+                    droppedTicks.add(pending - 1);
+                }
+                callback.onTick(remainingAt(task, oldest));
+                break;
+            case QUEUE:
+            default:
+                callback.onTick(remainingAt(task, ++task.consumedTicks));
+                break;
+        }
+
+        if (!task.isInfinite && task.consumedTicks == task.repeatCount && !task.isCancelled()) {
+            callback.onComplete();
+        }
+    }
+
+    /**
+     * Remaining count reported with the n-th tick (1-based) of a task.
+     */
+    private static int remainingAt(Task task, int tickNumber) {
+        return task.isInfinite ? INFINITE : task.repeatCount - tickNumber + 1;
+    }
+
+    /**
+     * Worker thread: a delayed task's timer fired.
+     */
+    private void onDelayElapsed(Task task) {
+        reclaimCollected();
+        if (task.isCancelled()) {
+            return;
+        }
+        Metrics m = metrics;
+        long pickupNanos = (m != null) ? m.recordPickup(task, clock.nanos()) : NO_TIME;
+        removeTask(task.id);
+        if (task.delayedTaskRef.get() != null) {
+            task.markPosted(pickupNanos);
+            task.post();
+        }
+    }
+
+    /**
+     * Target thread: run a delayed task unless it was cancelled on the way.
+     */
+    private void deliverDelayed(Task task) {
+        Metrics m = metrics;
+        if (m != null) {
+            m.recordDelivery(task, clock.nanos());
+        }
+        DelayedTask callback = task.delayedTaskRef.get();
+        if (callback != null && !task.isCancelled()) {
+            callback.onExecute();
+        }
+    }
+
+    // ==================== Private Helpers ====================
+
+    /**
+     * Arm a cycle task's timer, on its lane and through the batcher if it has a tolerance.
+     */
+    private void armCycle(Task task, long initialDelayMs) {
+        task.dueNanos = dueAfter(initialDelayMs);
+        // Fixed delay, not fixed rate! A fixed rate can cause hundreds of rapid executions
+        // when Android process transitions from cached to uncached state
+        // (all "missed" ticks fire at once)
+        TimerEngine alarm = alarmEngineFor(task, task.intervalMs);
+        if (alarm != null) {
+            task.attach(alarm.scheduleWithFixedDelay(task.workerTick, initialDelayMs, task.intervalMs));
+        } else if (task.toleranceMs > 0) {
+            task.attach(batcherOf(task).scheduleWithFixedDelay(
+                    task.workerTick, initialDelayMs, task.intervalMs, task.toleranceMs));
+        } else {
+            task.attach(engineOf(task).scheduleWithFixedDelay(task.workerTick, initialDelayMs, task.intervalMs));
+        }
+    }
+
+    /**
+     * Arm a one-shot timer for a task: delayed tasks once, rate limiters once per window.
+     */
+    private void armDelay(Task task, long delayMs) {
+        // Use schedule() for one-shot tasks, not a repeating schedule
+        TimerEngine alarm = alarmEngineFor(task, delayMs);
+        if (alarm != null) {
+            task.attach(alarm.schedule(task.workerTick, delayMs));
+        } else if (task.toleranceMs > 0) {
+            task.attach(batcherOf(task).schedule(task.workerTick, delayMs, task.toleranceMs));
+        } else {
+            task.attach(engineOf(task).schedule(task.workerTick, delayMs));
+        }
+    }
+
+    private Dispatcher targetOf(Options options) {
+        return (options.target != null) ? options.target : dispatcher;
+    }
+
+    /**
+     * The alarm engine if a task waiting this long (its interval, for cycles) belongs
+     * on it, else null. Tolerances don't apply there: the tier multiplexes its own wakeups.
+     */
+    private TimerEngine alarmEngineFor(Task task, long waitMs) {
+        TimerEngine alarm = alarmEngine;
+        if (alarm != null && (task.allowWhileIdle || waitMs >= alarmMinDelayMs)) {
+            return alarm;
+        }
+        return null;
+    }
+
+    private TimerEngine engineOf(Task task) {
+        return task.urgent ? priorityEngine : engine;
+    }
+
+    private WakeupBatcher batcherOf(Task task) {
+        return task.urgent ? priorityBatcher : batcher;
+    }
+
+    /**
+     * Intended fire time of a task scheduled now with the given delay (NO_TIME while metrics are off).
+     */
+    private long dueAfter(long delayMs) {
+        return (metrics != null) ? clock.nanos() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs)) : NO_TIME;
+    }
+
+    private void registerTask(Task task) {
+        reclaimCollected();
+        tasks.put(task.id, task);
+        tasksByTag.compute(task.tag, (tag, tagged) -> {
+            if (tagged == null) {
+                tagged = ConcurrentHashMap.newKeySet();
+            }
+            tagged.add(task);
+            return tagged;
+        });
+        if (task.cycleTickerRef != null) {
+            tasksByTicker.add(task.cycleTickerRef.get(), task);
+        } else {
+            tasksByDelayedTask.add(task.delayedTaskRef.get(), task);
+        }
+        if (task.group != null) {
+            task.group.add(task);
+        }
+    }
+
+    private Task removeTask(int taskId) {
+        Task task = tasks.remove(taskId);
+        if (task != null) {
+            unindex(task);
+        }
+        return task;
+    }
+
+    /**
+     * Remove a task (already removed from the id map) from the secondary indexes.
+     */
+    private void unindex(Task task) {
+        // Drop the tag entry once its last task is gone, so the index doesn't grow with dead tags
+        tasksByTag.computeIfPresent(task.tag, (tag, tagged) -> {
+            tagged.remove(task);
+            return tagged.isEmpty() ? null : tagged;
+        });
+        // A collected callback returns null here; its index entry is expunged by the index itself
+        if (task.cycleTickerRef != null) {
+            tasksByTicker.remove(task.cycleTickerRef.get(), task);
+        } else {
+            tasksByDelayedTask.remove(task.delayedTaskRef.get(), task);
+        }
+        if (task.group != null) {
+            task.group.tasks.remove(task); // Releases the strongly held callback with it
+        }
+    }
+
+    /**
+     * Remove the tasks whose callbacks were garbage collected (e.g. a destroyed Activity's
+     * ticker) and cancel their timers, so a long interval or delay doesn't keep the Task
+     * and its engine entry alive until it would have fired.
+     *
+     * Runs on every registration, count query and worker tick rather than on a reaper
+     * thread of its own, which would keep a thread alive while the engine has none.
+     * An empty queue costs one volatile read and no allocation.
+     */
+    private void reclaimCollected() {
+        Reference<?> ref;
+        while ((ref = collectedCallbacks.poll()) != null) {
+            Task task = ((CallbackRef<?>) ref).task;
+            if (tasks.remove(task.id, task)) {
+                unindex(task);
+            }
+            task.cancel();
+        }
+    }
+
+    private boolean cancelTasks(Set<Task> candidates) {
+        boolean found = false;
+        for (Task task : candidates) {
+            if (cancelTask(task)) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Unregister and cancel one task.
+     * @return true if it was still live
+     */
+    private boolean cancelTask(Task task) {
+        if (tasks.remove(task.id, task)) {
+            unindex(task);
+            task.cancel();
+            return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
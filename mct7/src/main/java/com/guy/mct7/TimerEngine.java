@@ -0,0 +1,50 @@
+package com.guy.mct7;
+
+/**
+ * TimerEngine - the scheduling backend behind MCT7.
+ *
+ * An engine only decides WHEN a command runs on its worker thread.
+ * Main-thread dispatch, tags and task bookkeeping stay in MCT7.
+ *
+ * Implementations:
+ * - ExecutorTimerEngine: ScheduledThreadPoolExecutor (O(log n) schedule/cancel)
+ * - TimingWheelTimerEngine: hashed hierarchical timing wheel (O(1) schedule/cancel)
+ * - VirtualTimeScheduler: deterministic virtual time for tests and benchmarks
+ * - LooperTimerEngine (Android adapter, in the app): the main Looper's MessageQueue
+ */
+public interface TimerEngine {
+
+    /**
+     * Cancellation handle returned for every scheduled command.
+     */
+    interface Handle {
+        /**
+         * Cancel the command. Does not interrupt it if it is already running.
+         */
+        void cancel();
+    }
+
+    /**
+     * Run a command once after the given delay.
+     */
+    Handle schedule(Runnable command, long delayMs);
+
+    /**
+     * Run a command repeatedly with fixed-delay semantics:
+     * the delay is measured from the END of one run to the start of the next.
+     */
+    Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs);
+
+    /**
+     * Stop the worker thread(s). Pending commands are discarded.
+     */
+    void shutdown();
+
+    /**
+     * Number of commands waiting for their deadline (queue depth), or -1 if the
+     * engine can't tell. A snapshot for metrics; may be stale by the time it returns.
+     */
+    default int pendingCount() {
+        return -1;
+    }
+}
@@ -0,0 +1,410 @@
+package com.guy.mct7;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MCT7 engine backed by a hashed hierarchical timing wheel.
+ *
+ * HOW IT WORKS:
+ * - Level 0 has WHEEL_SIZE buckets of TICK_MS each, level 1 buckets span a
+ *   whole level 0 wheel, and so on. Levels are created on demand.
+ * - Scheduling hashes the deadline into a bucket: O(1).
+ * - Cancelling unlinks the entry from its bucket's doubly linked list: O(1).
+ * - Only non-empty buckets sit in a DelayQueue, so the worker sleeps until the
+ *   next bucket is due instead of waking on every tick. That queue holds at most
+ *   WHEEL_SIZE buckets per level, independent of the number of timers.
+ * - When a higher-level bucket expires its entries cascade down to finer levels.
+ *
+ * Commands run on the single "MCT7-Wheel" worker thread, exactly like they would
+ * on an executor thread. Periodic commands are re-armed after each run, which
+ * keeps MCT7's fixed-delay semantics.
+ *
+ * The worker starts with the first scheduled command and retires after
+ * the idle timeout with no bucket left in the DelayQueue, so an idle wheel holds
+ * no thread. The next schedule() starts a new one.
+ */
+final class TimingWheelTimerEngine implements TimerEngine {
+
+    private static final long TICK_MS = 1;
+    private static final int WHEEL_SIZE = 64;
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 15_000;
+
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Wheel root;
+
+    // Entries that were already due when added; flushed by the worker on its next pass
+    private final Bucket immediate;
+
+    // Worker-thread only: entries whose deadline has passed, run outside the lock
+    private final ArrayDeque<Entry> due = new ArrayDeque<>();
+
+    // Entries linked into any bucket, for pendingCount()
+    private final AtomicInteger bucketed = new AtomicInteger();
+
+    private final MCT7.Clock clock;
+    private final long idleTimeoutMs;
+    private final Object workerLock = new Object();
+    private volatile Thread worker; // null while retired; written under workerLock
+    private volatile boolean running = true;
+
+    TimingWheelTimerEngine(MCT7.Clock clock) {
+        this(clock, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    TimingWheelTimerEngine(MCT7.Clock clock, long idleTimeoutMs) {
+        this.clock = clock;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.immediate = new Bucket();
+        this.root = new Wheel(TICK_MS, WHEEL_SIZE, nowMs());
+    }
+
+    // ==================== TimerEngine ====================
+
+    @Override
+    public Handle schedule(Runnable command, long delayMs) {
+        Entry entry = new Entry(command, 0);
+        entry.expirationMs = nowMs() + Math.max(0, delayMs);
+        add(entry, delayMs <= 0);
+        return entry;
+    }
+
+    @Override
+    public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+        if (delayMs <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delayMs);
+        }
+        Entry entry = new Entry(command, delayMs);
+        entry.expirationMs = nowMs() + Math.max(0, initialDelayMs);
+        add(entry, initialDelayMs <= 0);
+        return entry;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        synchronized (workerLock) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+        delayQueue.clear();
+    }
+
+    @Override
+    public int pendingCount() {
+        return bucketed.get();
+    }
+
+    /**
+     * Whether the worker thread is currently alive (it retires when idle).
+     */
+    boolean hasWorker() {
+        return worker != null;
+    }
+
+    // ==================== Internals ====================
+
+    private long nowMs() {
+        return clock.millis();
+    }
+
+    /**
+     * @param alreadyDue true to skip the wheel: the wheel's time only advances when the worker
+     *                   wakes, so a due entry could land in an expired bucket nobody is waiting on
+     */
+    private void add(Entry entry, boolean alreadyDue) {
+        if (!running) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if ((alreadyDue || !root.add(entry)) && !entry.cancelled) {
+                // Already due - hand it to the worker rather than running on the caller's thread
+                immediate.add(entry);
+                if (immediate.setExpiration(0)) {
+                    delayQueue.offer(immediate);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // After the offer: a worker retiring concurrently either sees this bucket or is replaced here
+        if (worker == null) {
+            startWorker();
+        }
+    }
+
+    private void startWorker() {
+        synchronized (workerLock) {
+            if (worker == null && running) {
+                Thread t = new Thread(this::runWorker, "MCT7-Wheel");
+                t.setDaemon(true); // Won't prevent app termination
+                worker = t;
+                t.start();
+            }
+        }
+    }
+
+    /**
+     * Worker thread, idle for idleTimeoutMs: retire unless work arrived meanwhile.
+     *
+     * @return true if this thread must keep running
+     */
+    private boolean retire() {
+        synchronized (workerLock) {
+            worker = null;
+        }
+        // A concurrent add() that still saw this worker offered its bucket before we
+        // cleared the field, so it is visible here; take the job back if nobody else did
+        if (delayQueue.isEmpty() || !running) {
+            return false;
+        }
+        synchronized (workerLock) {
+            if (worker == null) {
+                worker = Thread.currentThread();
+                return true;
+            }
+            return false; // add() already started a replacement
+        }
+    }
+
+    /**
+     * Re-insert an entry whose bucket expired. Entries that are due now are
+     * collected in {@link #due}; the rest cascade down to a finer level.
+     */
+    private void reinsert(Entry entry) {
+        if (!entry.cancelled && !root.add(entry)) {
+            due.add(entry);
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            Bucket bucket;
+            try {
+                // Nothing armed: wait a while for new work, then retire.
+                // Something armed: sleep until it is due, however far away.
+                bucket = delayQueue.isEmpty()
+                        ? delayQueue.poll(idleTimeoutMs, TimeUnit.MILLISECONDS)
+                        : delayQueue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (bucket == null) {
+                if (retire()) {
+                    continue;
+                }
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                while (bucket != null) {
+                    root.advanceClock(bucket.getExpiration());
+                    bucket.flush();
+                    bucket = delayQueue.poll();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Entry entry;
+            while ((entry = due.poll()) != null) {
+                runEntry(entry);
+            }
+        }
+    }
+
+    private void runEntry(Entry entry) {
+        if (entry.cancelled) {
+            return;
+        }
+        try {
+            entry.command.run();
+        } catch (Throwable t) {
+            // Same contract as ScheduledThreadPoolExecutor: a failing periodic task stops repeating
+            entry.cancelled = true;
+            return;
+        }
+        if (entry.periodMs > 0 && !entry.cancelled) {
+            // Fixed delay: next run is measured from the END of this one
+            entry.expirationMs = nowMs() + entry.periodMs;
+            add(entry, false);
+        }
+    }
+
+    // ==================== Entry ====================
+
+    private static final class Entry implements Handle {
+        final Runnable command;
+        final long periodMs; // 0 for one-shot commands
+
+        long expirationMs;
+        volatile boolean cancelled;
+
+        // Links are guarded by the owning bucket's monitor
+        volatile Bucket bucket;
+        Entry next;
+        Entry prev;
+
+        Entry(Runnable command, long periodMs) {
+            this.command = command;
+            this.periodMs = periodMs;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            // The entry may be cascading between buckets concurrently; retry until unlinked
+            Bucket b;
+            while ((b = bucket) != null) {
+                b.remove(this);
+            }
+        }
+    }
+
+    // ==================== Bucket ====================
+
+    private final class Bucket implements Delayed {
+        private final Entry root = new Entry(null, 0); // Sentinel of a circular list
+        private final AtomicLong expiration = new AtomicLong(-1);
+
+        Bucket() {
+            root.next = root;
+            root.prev = root;
+        }
+
+        synchronized void add(Entry entry) {
+            Entry tail = root.prev;
+            entry.next = root;
+            entry.prev = tail;
+            entry.bucket = this;
+            tail.next = entry;
+            root.prev = entry;
+            bucketed.incrementAndGet();
+            // A cancel() that read bucket while the entry was between buckets (cascading, or on
+            // its way in) found nothing to unlink. It set cancelled first, so it is visible here.
+            if (entry.cancelled) {
+                remove(entry);
+            }
+        }
+
+        synchronized void remove(Entry entry) {
+            if (entry.bucket == this) {
+                entry.next.prev = entry.prev;
+                entry.prev.next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                entry.bucket = null;
+                bucketed.decrementAndGet();
+            }
+        }
+
+        /**
+         * Remove every entry and hand it back to the engine for re-insertion.
+         */
+        synchronized void flush() {
+            Entry head = root.next;
+            while (head != root) {
+                remove(head);
+                reinsert(head);
+                head = root.next;
+            }
+            expiration.set(-1);
+        }
+
+        /**
+         * @return true if the expiration changed, i.e. the bucket must be (re)queued
+         */
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - nowMs(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+
+    // ==================== Wheel ====================
+
+    private final class Wheel {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long intervalMs;
+        private final Bucket[] buckets;
+        private volatile long currentTime; // Always a multiple of tickMs
+        private volatile Wheel overflow;
+
+        Wheel(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        /**
+         * @return false if the entry is already due (or cancelled) and was not added
+         */
+        boolean add(Entry entry) {
+            long expirationMs = entry.expirationMs;
+            if (entry.cancelled || expirationMs < currentTime + tickMs) {
+                return false;
+            }
+            if (expirationMs < currentTime + intervalMs) {
+                long virtualId = expirationMs / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            }
+            return overflowWheel().add(entry);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                Wheel next = overflow;
+                if (next != null) {
+                    next.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Wheel overflowWheel() {
+            Wheel next = overflow;
+            if (next == null) {
+                synchronized (this) {
+                    next = overflow;
+                    if (next == null) {
+                        next = new Wheel(intervalMs, wheelSize, currentTime);
+                        overflow = next;
+                    }
+                }
+            }
+            return next;
+        }
+    }
+}
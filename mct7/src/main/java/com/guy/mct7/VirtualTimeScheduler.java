@@ -0,0 +1,139 @@
+package com.guy.mct7;
+
+import java.util.PriorityQueue;
+
+/**
+ * Deterministic virtual-time engine and clock for MCT7.
+ *
+ * Nothing runs until the owner advances time. advanceBy() then jumps from deadline
+ * to deadline and runs each due command on the calling thread, in deadline order
+ * (FIFO for equal deadlines). Hours of heartbeats and cycles take milliseconds on
+ * the plain JVM, with no Android framework or real threads involved.
+ *
+ * Usage (local unit test):
+ *   VirtualTimeScheduler time = new VirtualTimeScheduler();
+ *   MCT7.initVirtual(time);
+ *   MCT7.get().cycle(MCT7.INFINITE, 10_000, ticker);
+ *   time.advanceBy(TimeUnit.HOURS.toMillis(10)); // 3600 ticks, delivered inline
+ *
+ * Not thread-safe: schedule and advance from a single (test) thread.
+ */
+public final class VirtualTimeScheduler implements TimerEngine, MCT7.Clock {
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private long nowMs;
+    private long sequence;
+
+    public VirtualTimeScheduler() {
+        this(0);
+    }
+
+    public VirtualTimeScheduler(long startMs) {
+        this.nowMs = startMs;
+    }
+
+    // ==================== Clock ====================
+
+    @Override
+    public long millis() {
+        return nowMs;
+    }
+
+    // ==================== Time Control ====================
+
+    /**
+     * Advance virtual time, running everything that falls due on the way.
+     */
+    public void advanceBy(long deltaMs) {
+        if (deltaMs < 0) {
+            throw new IllegalArgumentException("Cannot go back in time: " + deltaMs);
+        }
+        advanceTo(nowMs + deltaMs);
+    }
+
+    /**
+     * Advance virtual time to an absolute timestamp, running everything due until then.
+     */
+    public void advanceTo(long targetMs) {
+        Entry entry;
+        while ((entry = queue.peek()) != null && entry.deadlineMs <= targetMs) {
+            queue.poll();
+            nowMs = Math.max(nowMs, entry.deadlineMs);
+            entry.command.run();
+            if (entry.periodMs > 0 && !entry.cancelled) {
+                // Fixed delay: next run is measured from the END of this one
+                entry.deadlineMs = nowMs + entry.periodMs;
+                entry.sequence = sequence++;
+                queue.add(entry);
+            }
+        }
+        nowMs = Math.max(nowMs, targetMs);
+    }
+
+    /**
+     * Run everything that is due right now, without moving the clock.
+     */
+    public void runDue() {
+        advanceTo(nowMs);
+    }
+
+    /**
+     * Number of commands waiting to run. Cancelled ones leave the queue right away.
+     */
+    @Override
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    // ==================== TimerEngine ====================
+
+    @Override
+    public Handle schedule(Runnable command, long delayMs) {
+        return add(new Entry(command, 0), delayMs);
+    }
+
+    @Override
+    public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+        if (delayMs <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delayMs);
+        }
+        return add(new Entry(command, delayMs), initialDelayMs);
+    }
+
+    @Override
+    public void shutdown() {
+        queue.clear();
+    }
+
+    private Entry add(Entry entry, long delayMs) {
+        entry.deadlineMs = nowMs + Math.max(0, delayMs);
+        entry.sequence = sequence++;
+        queue.add(entry);
+        return entry;
+    }
+
+    private final class Entry implements Handle, Comparable<Entry> {
+        final Runnable command;
+        final long periodMs; // 0 for one-shot commands
+        long deadlineMs;
+        long sequence;
+        boolean cancelled;
+
+        Entry(Runnable command, long periodMs) {
+            this.command = command;
+            this.periodMs = periodMs;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true; // Stops a periodic command re-queueing itself if it is running now
+            queue.remove(this);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = Long.compare(deadlineMs, other.deadlineMs);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.guy.mct7;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces commands that declare a tolerance into shared engine wakeups,
+ * like AlarmManager's window alarms.
+ *
+ * HOW IT WORKS:
+ * - A command scheduled with delay d and tolerance t may run anywhere in
+ *   [now + d, now + d + t].
+ * - Commands whose windows overlap share a batch. The batch window is the
+ *   intersection of its members' windows, so every member stays inside its own.
+ * - Each batch arms ONE engine timer at the start of its window. When it fires,
+ *   all members run back-to-back on the worker thread.
+ * - Periodic commands rejoin (or start) a batch after each run, measured from the
+ *   end of the run, which keeps MCT7's fixed-delay semantics.
+ *
+ * Commands without a tolerance never come here; they keep their own exact timers.
+ * Batches are few and short-lived, so a single lock and a linear scan are enough.
+ */
+final class WakeupBatcher {
+
+    private final TimerEngine engine;
+    private final MCT7.Clock clock;
+    private final ArrayList<Batch> batches = new ArrayList<>(); // Armed, not yet fired
+    private final LongAdder wakeupsSaved = new LongAdder();
+
+    WakeupBatcher(TimerEngine engine, MCT7.Clock clock) {
+        this.engine = engine;
+        this.clock = clock;
+    }
+
+    /**
+     * Run a command once, between delayMs and delayMs + toleranceMs from now.
+     */
+    TimerEngine.Handle schedule(Runnable command, long delayMs, long toleranceMs) {
+        Entry entry = new Entry(command, 0, toleranceMs);
+        add(entry, delayMs);
+        return entry;
+    }
+
+    /**
+     * Run a command repeatedly with fixed-delay semantics, each run within
+     * toleranceMs after its exact deadline.
+     */
+    TimerEngine.Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs,
+                                              long toleranceMs) {
+        if (delayMs <= 0) {
+            throw new IllegalArgumentException("Delay must be positive: " + delayMs);
+        }
+        Entry entry = new Entry(command, delayMs, toleranceMs);
+        add(entry, initialDelayMs);
+        return entry;
+    }
+
+    /**
+     * Engine wakeups avoided so far: every batch that ran N commands saved N - 1.
+     */
+    long wakeupsSaved() {
+        return wakeupsSaved.sum();
+    }
+
+    private synchronized void add(Entry entry, long delayMs) {
+        if (entry.cancelled) {
+            return;
+        }
+        long nowMs = clock.millis();
+        long startMs = nowMs + Math.max(0, delayMs);
+        long endMs = startMs + entry.toleranceMs;
+        entry.startMs = startMs;
+        entry.endMs = endMs;
+
+        for (Batch batch : batches) {
+            if (batch.startMs <= endMs && startMs <= batch.endMs) {
+                batch.entries.add(entry);
+                entry.batch = batch;
+                batch.endMs = Math.min(batch.endMs, endMs);
+                if (startMs > batch.startMs) {
+                    // Intersection starts later - move the batch's single wakeup
+                    batch.startMs = startMs;
+                    arm(batch, nowMs);
+                }
+                return;
+            }
+        }
+
+        Batch batch = new Batch(startMs, endMs);
+        batch.entries.add(entry);
+        entry.batch = batch;
+        batches.add(batch);
+        arm(batch, nowMs);
+    }
+
+    private void arm(Batch batch, long nowMs) {
+        if (batch.handle != null) {
+            batch.handle.cancel();
+        }
+        // A fire for an older generation may already be waiting for the lock;
+        // it must not run the batch early
+        int generation = ++batch.generation;
+        batch.handle = engine.schedule(() -> fire(batch, generation), batch.startMs - nowMs);
+    }
+
+    /**
+     * Worker thread: a batch's wakeup is due.
+     */
+    private void fire(Batch batch, int generation) {
+        synchronized (this) {
+            if (batch.generation != generation || !batches.remove(batch)) {
+                return;
+            }
+            batch.fired = true; // Members are no longer added or removed
+        }
+
+        int ran = 0;
+        for (Entry entry : batch.entries) {
+            if (entry.cancelled) {
+                continue;
+            }
+            ran++;
+            try {
+                entry.command.run();
+            } catch (Throwable t) {
+                // Same contract as the engines: a failing periodic command stops repeating,
+                // and it must not take the rest of the batch down with it
+                entry.cancelled = true;
+                continue;
+            }
+            if (entry.periodMs > 0) {
+                // Fixed delay: next run is measured from the END of this one
+                add(entry, entry.periodMs);
+            }
+        }
+        if (ran > 1) {
+            wakeupsSaved.add(ran - 1);
+        }
+    }
+
+    // ==================== Entry / Batch ====================
+
+    private final class Entry implements TimerEngine.Handle {
+        final Runnable command;
+        final long periodMs; // 0 for one-shot commands
+        final long toleranceMs;
+        volatile boolean cancelled;
+        // Guarded by the batcher's lock
+        Batch batch;
+        long startMs;        // This run's window
+        long endMs;
+
+        Entry(Runnable command, long periodMs, long toleranceMs) {
+            this.command = command;
+            this.periodMs = periodMs;
+            this.toleranceMs = toleranceMs;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (WakeupBatcher.this) {
+                cancelled = true;
+                Batch b = batch;
+                if (b == null || b.fired) {
+                    return; // A firing batch skips cancelled entries by itself
+                }
+                b.entries.remove(this);
+                if (b.entries.isEmpty()) {
+                    batches.remove(b);
+                    b.handle.cancel(); // Nobody left to wake up for
+                } else if (b.widen()) {
+                    arm(b, clock.millis()); // This entry was holding the wakeup back
+                }
+            }
+        }
+    }
+
+    private static final class Batch {
+        long startMs;
+        long endMs;
+        final ArrayList<Entry> entries = new ArrayList<>(2);
+        TimerEngine.Handle handle;
+        int generation;
+        boolean fired;
+
+        Batch(long startMs, long endMs) {
+            this.startMs = startMs;
+            this.endMs = endMs;
+        }
+
+        /**
+         * Recompute the window from the remaining members.
+         * @return true if it now starts earlier, i.e. the wakeup must move
+         */
+        boolean widen() {
+            long oldStartMs = startMs;
+            startMs = Long.MIN_VALUE;
+            endMs = Long.MAX_VALUE;
+            for (Entry entry : entries) {
+                startMs = Math.max(startMs, entry.startMs);
+                endMs = Math.min(endMs, entry.endMs);
+            }
+            return startMs < oldStartMs;
+        }
+    }
+}
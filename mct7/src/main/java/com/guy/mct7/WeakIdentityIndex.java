@@ -0,0 +1,117 @@
+package com.guy.mct7;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent multimap from an object (compared by IDENTITY, held WEAKLY) to a set of values.
+ *
+ * MCT7 uses it as a reverse index from callback to its tasks, so cancel(callback)
+ * is a single lookup instead of a scan over every task.
+ *
+ * Keys never keep a callback alive: when a callback is garbage collected, its key
+ * is enqueued on a ReferenceQueue and the entry is expunged on the next operation.
+ *
+ * @param <V> value type (MCT7 stores its Task objects)
+ */
+final class WeakIdentityIndex<V> {
+
+    private final ConcurrentHashMap<Key, Set<V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> staleKeys = new ReferenceQueue<>();
+
+    /**
+     * Associate a value with a key object.
+     */
+    void add(Object key, V value) {
+        expungeStaleKeys();
+        map.compute(new Key(key, staleKeys), (k, values) -> {
+            if (values == null) {
+                values = ConcurrentHashMap.newKeySet();
+            }
+            values.add(value);
+            return values;
+        });
+    }
+
+    /**
+     * Remove a single value. The key entry is dropped once it has no values left.
+     * A null key (already collected) is a no-op - its entry is expunged via the queue.
+     */
+    void remove(Object key, V value) {
+        expungeStaleKeys();
+        if (key == null) {
+            return;
+        }
+        map.computeIfPresent(new Key(key, null), (k, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    /**
+     * Values associated with a key object, or an empty set.
+     * The returned set is live and safe to iterate concurrently.
+     */
+    Set<V> get(Object key) {
+        expungeStaleKeys();
+        if (key == null) {
+            return Collections.emptySet();
+        }
+        Set<V> values = map.get(new Key(key, null));
+        return values != null ? values : Collections.emptySet();
+    }
+
+    /**
+     * Number of distinct live keys.
+     */
+    int size() {
+        expungeStaleKeys();
+        return map.size();
+    }
+
+    void clear() {
+        map.clear();
+        while (staleKeys.poll() != null) {
+            // Drain - entries are already gone
+        }
+    }
+
+    private void expungeStaleKeys() {
+        Reference<?> stale;
+        while ((stale = staleKeys.poll()) != null) {
+            map.remove(stale); // Cleared keys are only equal to themselves
+        }
+    }
+
+    // ==================== Key ====================
+
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        Key(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Key) other).get();
+        }
+    }
+}
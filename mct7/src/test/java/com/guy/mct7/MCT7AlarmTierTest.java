@@ -0,0 +1,81 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for routing tasks to the alarm tier. Both engines are virtual, so
+ * a task's tier is simply the scheduler that holds its timer.
+ */
+public class MCT7AlarmTierTest {
+
+    private static final long MIN_DELAY_MS = 60_000;
+
+    private final VirtualTimeScheduler executor = new VirtualTimeScheduler();
+    private final VirtualTimeScheduler alarms = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(executor, executor, MCT7.Dispatcher.IMMEDIATE);
+    private final MCT7.CycleTicker ticker = remaining -> { };
+    private final MCT7.DelayedTask task = () -> { };
+
+    private static final MCT7.Options WHILE_IDLE = MCT7.Options.builder().allowWhileIdle().build();
+
+    @Test
+    public void longWaitsAndWhileIdleTasksGoToTheAlarmTier() {
+        mct7.setAlarmEngine(alarms, MIN_DELAY_MS);
+
+        mct7.cycle(MCT7.INFINITE, 1_000, "short", ticker);
+        mct7.cycle(MCT7.INFINITE, MIN_DELAY_MS, "long", ticker);
+        mct7.delay(10 * MIN_DELAY_MS, "long", task);
+        mct7.cycle(MCT7.INFINITE, 10_000, 0, "heartbeat", WHILE_IDLE, ticker);
+
+        assertEquals(1, executor.pendingCount());
+        assertEquals(3, alarms.pendingCount());
+        assertEquals(4, mct7.getActiveTaskCount());
+        assertEquals(2, mct7.cancelByTag("long")); // Same tag API on either tier
+        assertEquals(1, alarms.pendingCount());
+    }
+
+    @Test
+    public void rescheduleMovesATaskAcrossTiers() {
+        mct7.setAlarmEngine(alarms, MIN_DELAY_MS);
+        int id = mct7.cycle(MCT7.INFINITE, 1_000, "refresh", ticker);
+
+        assertTrue(mct7.reschedule(id, 5 * MIN_DELAY_MS));
+        assertEquals(0, executor.pendingCount());
+        assertEquals(1, alarms.pendingCount());
+
+        assertTrue(mct7.reschedule(id, 1_000));
+        assertEquals(1, executor.pendingCount());
+        assertEquals(0, alarms.pendingCount());
+    }
+
+    @Test
+    public void withoutAnAlarmEngineEverythingStaysOnTheExecutor() {
+        mct7.cycle(MCT7.INFINITE, 10 * MIN_DELAY_MS, "long", ticker);
+        mct7.cycle(MCT7.INFINITE, 10_000, 0, "heartbeat", WHILE_IDLE, ticker);
+
+        assertEquals(2, executor.pendingCount());
+    }
+
+    @Test
+    public void whileIdleRejectsOptionsTheAlarmTierCantHonour() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MCT7.Options.builder().allowWhileIdle().toleranceMs(2_000).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> MCT7.Options.builder().priority(MCT7.Priority.HIGH).allowWhileIdle().build());
+        MCT7.Options.builder().allowWhileIdle().onWorkerThread().build(); // Fine
+    }
+
+    @Test
+    public void alarmEngineIsInstalledOnlyOnce() {
+        mct7.setAlarmEngine(alarms, MIN_DELAY_MS);
+        VirtualTimeScheduler second = new VirtualTimeScheduler();
+        second.schedule(() -> { }, 10);
+        mct7.setAlarmEngine(second, 1);
+
+        assertEquals(0, second.pendingCount()); // Shut down, not used
+        mct7.delay(MIN_DELAY_MS, task);
+        assertEquals(1, alarms.pendingCount());
+    }
+}
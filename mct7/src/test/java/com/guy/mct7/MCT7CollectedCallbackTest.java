@@ -0,0 +1,49 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for reclaiming tasks whose callbacks were garbage collected.
+ * Timers are far in the virtual future, so only the ReferenceQueue can remove them.
+ */
+public class MCT7CollectedCallbackTest {
+
+    private static final long ONE_HOUR_MS = 3_600_000;
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, MCT7.Dispatcher.IMMEDIATE);
+
+    /**
+     * Schedule tasks whose callbacks nothing else references. They capture i:
+     * a non-capturing lambda is a cached singleton that is never collected.
+     */
+    private void scheduleUnreachable(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            mct7.cycle(MCT7.INFINITE, ONE_HOUR_MS, "churn", remaining -> assertTrue(n >= 0));
+            mct7.delay(ONE_HOUR_MS, "churn", () -> assertTrue(n >= 0));
+        }
+    }
+
+    @Test
+    public void collectedCallbacksFreeTheirTasksBeforeTheyFire() throws InterruptedException {
+        MCT7.CycleTicker kept = remaining -> { };
+        int keptId = mct7.cycle(MCT7.INFINITE, ONE_HOUR_MS, "kept", kept);
+        scheduleUnreachable(100);
+        assertEquals(201, scheduler.pendingCount());
+
+        // GC is a hint; give it a few chances to clear the weak references
+        for (int i = 0; i < 20 && mct7.getActiveTaskCount() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, mct7.getActiveTaskCount());
+        assertEquals(0, mct7.getActiveTaskCount("churn"));
+        assertEquals(1, scheduler.pendingCount()); // Engine entries were cancelled too
+        assertTrue(mct7.isActive(keptId));
+        assertTrue(mct7.cancel(kept));
+    }
+}
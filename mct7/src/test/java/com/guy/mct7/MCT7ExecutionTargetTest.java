@@ -0,0 +1,107 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for per-task execution targets. The "main thread" is a queue
+ * drained by hand, so anything that runs before the drain did not go through it.
+ */
+public class MCT7ExecutionTargetTest {
+
+    private static final class QueuedThread implements MCT7.Dispatcher, Executor {
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void dispatch(Runnable callback) {
+            queue.add(callback);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void drain() {
+            Runnable r;
+            while ((r = queue.poll()) != null) {
+                r.run();
+            }
+        }
+    }
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final QueuedThread mainThread = new QueuedThread();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, mainThread);
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void defaultTargetIsTheMainThread() {
+        MCT7.DelayedTask task = () -> events.add("main");
+        mct7.delay(100, task);
+
+        scheduler.advanceBy(100);
+        assertTrue(events.isEmpty());
+        mainThread.drain();
+        assertEquals(List.of("main"), events);
+    }
+
+    @Test
+    public void workerTargetRunsWithoutTheMainThread() {
+        MCT7.CycleTicker ticker = remaining -> events.add("tick " + remaining);
+        MCT7.Options worker = MCT7.Options.builder().onWorkerThread().build();
+        mct7.cycle(2, 100, 100, "io", worker, ticker);
+
+        scheduler.advanceBy(200);
+
+        assertEquals(List.of("tick 2", "tick 1"), events);
+        assertTrue(mainThread.queue.isEmpty());
+    }
+
+    @Test
+    public void executorTargetGetsTheCallbacks() {
+        QueuedThread ioPool = new QueuedThread();
+        MCT7.DelayedTask task = () -> events.add("io");
+        mct7.delay(100, "io", MCT7.Options.builder().executeOn(ioPool).build(), task);
+
+        scheduler.advanceBy(100);
+        mainThread.drain();
+        assertTrue(events.isEmpty());
+
+        ioPool.drain();
+        assertEquals(List.of("io"), events);
+    }
+
+    @Test
+    public void ticksPendingOnABusyTargetFollowTheOverflowPolicy() {
+        QueuedThread looper = new QueuedThread();
+        MCT7.CycleTicker ticker = new MCT7.CycleTicker() {
+            @Override
+            public void onTick(int remainingTicks) {
+                events.add("tick " + remainingTicks);
+            }
+
+            @Override
+            public void onTick(int remainingTicks, int skippedTicks) {
+                events.add("tick " + remainingTicks + " skipped " + skippedTicks);
+            }
+        };
+        MCT7.Options options = MCT7.Options.builder()
+                .executeOn(looper)
+                .overflowPolicy(MCT7.OverflowPolicy.COALESCE)
+                .build();
+        mct7.cycle(3, 100, 100, "looper", options, ticker);
+
+        scheduler.advanceBy(300);
+        assertEquals(1, looper.queue.size()); // One dispatch in flight, not three
+        looper.drain();
+
+        assertEquals(List.of("tick 1 skipped 2"), events);
+    }
+}
@@ -0,0 +1,103 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for MCT7 latency metrics, on virtual time.
+ *
+ * Worker pickups happen exactly on the virtual deadline, so main-queue delay is
+ * whatever time passes between a tick and {@link QueuedMainThread#drain()}.
+ */
+public class MCT7MetricsTest {
+
+    private static final class QueuedMainThread implements MCT7.Dispatcher {
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void dispatch(Runnable callback) {
+            queue.add(callback);
+        }
+
+        void drain() {
+            Runnable r;
+            while ((r = queue.poll()) != null) {
+                r.run();
+            }
+        }
+    }
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler(1_000);
+    private final QueuedMainThread mainThread = new QueuedMainThread();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, mainThread);
+    private final MCT7.CycleTicker ticker = remaining -> { };
+
+    @Test
+    public void mainQueueDelayAndOverdueArePerTag() {
+        mct7.enableMetrics(16);
+        mct7.cycle(MCT7.INFINITE, 100, 100, "ui", MCT7.Options.DEFAULT, ticker);
+
+        scheduler.advanceBy(100); // Tick 1 fires on time...
+        scheduler.advanceBy(40);  // ...but the main thread is busy for 40ms
+        mainThread.drain();
+        scheduler.advanceBy(60);  // Tick 2 is due 100ms after tick 1 ran
+        mainThread.drain();
+
+        MCT7.MetricsSnapshot ui = mct7.getMetrics("ui");
+        assertNotNull(ui);
+        assertEquals(2, ui.tickCount);
+        assertEquals(0, ui.latenessMaxMicros);
+        assertEquals(0, ui.mainQueueDelayP50Micros);
+        assertEquals(40_000, ui.mainQueueDelayMaxMicros);
+        assertEquals(40_000, ui.mainQueueDelayP99Micros);
+        assertEquals(1, ui.overdueCount);
+        assertEquals(1, ui.engineQueueDepth); // The cycle's next run
+        assertNull(mct7.getMetrics("other"));
+    }
+
+    @Test
+    public void delayedTaskIsOverdueWhenTheMainThreadIsLate() {
+        mct7.enableMetrics(16);
+        mct7.delay(30, "once", () -> { });
+
+        scheduler.advanceBy(50);
+        mainThread.drain();
+
+        MCT7.MetricsSnapshot once = mct7.getMetrics().get("once");
+        assertNotNull(once);
+        assertEquals(1, once.tickCount);
+        assertEquals(20_000, once.mainQueueDelayMaxMicros);
+        assertEquals(1, once.overdueCount);
+    }
+
+    @Test
+    public void nothingIsRecordedWhileDisabled() {
+        mct7.cycle(3, 100, "ui", ticker);
+        scheduler.advanceBy(300);
+        mainThread.drain();
+
+        assertNull(mct7.getMetrics("ui"));
+        assertTrue(mct7.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000, histogram.max());
+        assertEquals(5_000, histogram.percentile(50), 5_000 / 32.0);
+        assertEquals(9_900, histogram.percentile(99), 9_900 / 32.0);
+        assertEquals(10_000, histogram.percentile(100));
+
+        histogram.record(-5);                              // Clamped to 0
+        histogram.record(LatencyHistogram.MAX_MICROS * 2); // Clamped to the top bucket
+        assertEquals(LatencyHistogram.MAX_MICROS, histogram.max());
+    }
+}
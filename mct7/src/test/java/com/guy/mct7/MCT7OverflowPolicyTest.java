@@ -0,0 +1,125 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for MCT7 overflow policies when the main thread falls behind.
+ *
+ * The "main thread" is a queue the test drains by hand, so a stalled main thread
+ * is simply several engine ticks before {@link StalledMainThread#drain()}.
+ */
+public class MCT7OverflowPolicyTest {
+
+    private static final class ManualEngine implements TimerEngine {
+        Runnable periodic;
+
+        @Override
+        public Handle schedule(Runnable command, long delayMs) {
+            return () -> { };
+        }
+
+        @Override
+        public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+            periodic = command;
+            return () -> periodic = null;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        void tick(int times) {
+            for (int i = 0; i < times && periodic != null; i++) {
+                periodic.run();
+            }
+        }
+    }
+
+    private static final class StalledMainThread implements MCT7.Dispatcher {
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void dispatch(Runnable callback) {
+            queue.add(callback);
+        }
+
+        void drain() {
+            Runnable r;
+            while ((r = queue.poll()) != null) {
+                r.run();
+            }
+        }
+    }
+
+    private static final class RecordingTicker implements MCT7.CycleTicker {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onTick(int remainingTicks) {
+            events.add("tick " + remainingTicks);
+        }
+
+        @Override
+        public void onTick(int remainingTicks, int skippedTicks) {
+            events.add("tick " + remainingTicks + " skipped " + skippedTicks);
+        }
+
+        @Override
+        public void onComplete() {
+            events.add("complete");
+        }
+    }
+
+    private final ManualEngine engine = new ManualEngine();
+    private final StalledMainThread mainThread = new StalledMainThread();
+    private final MCT7 mct7 = new MCT7(engine, mainThread);
+    private final RecordingTicker ticker = new RecordingTicker();
+
+    private void cycle(int repeatCount, MCT7.OverflowPolicy policy) {
+        MCT7.Options options = MCT7.Options.builder().overflowPolicy(policy).build();
+        mct7.cycle(repeatCount, 100, 0, "test", options, ticker);
+    }
+
+    @Test
+    public void queueDeliversEveryTickWithOneMainThreadMessage() {
+        cycle(3, MCT7.OverflowPolicy.QUEUE);
+
+        engine.tick(3);
+        assertEquals(1, mainThread.queue.size());
+        mainThread.drain();
+
+        assertEquals(List.of("tick 3", "tick 2", "tick 1", "complete"), ticker.events);
+    }
+
+    @Test
+    public void coalesceMergesBackedUpTicks() {
+        cycle(5, MCT7.OverflowPolicy.COALESCE);
+
+        engine.tick(3);
+        mainThread.drain();
+        engine.tick(2);
+        mainThread.drain();
+
+        assertEquals(List.of("tick 3 skipped 2", "tick 1 skipped 1", "complete"), ticker.events);
+        assertEquals(3, mct7.getCoalescedTickCount());
+    }
+
+    @Test
+    public void dropKeepsOldestPendingTick() {
+        cycle(MCT7.INFINITE, MCT7.OverflowPolicy.DROP);
+
+        engine.tick(4);
+        mainThread.drain();
+        engine.tick(1);
+        mainThread.drain();
+
+        assertEquals(List.of("tick -1", "tick -1"), ticker.events);
+        assertEquals(3, mct7.getDroppedTickCount());
+    }
+}
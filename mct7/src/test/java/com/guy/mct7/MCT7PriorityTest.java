@@ -0,0 +1,78 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for Priority.HIGH on virtual time: front-of-queue dispatch and the
+ * separate worker lane. Lateness under load is measured by PriorityLatenessBenchmark.
+ */
+public class MCT7PriorityTest {
+
+    /** "Main thread" queue with Handler-like post / postAtFrontOfQueue, drained by hand. */
+    private static final class QueuedMainThread implements MCT7.Dispatcher {
+        final LinkedList<Runnable> queue = new LinkedList<>();
+
+        @Override
+        public void dispatch(Runnable callback) {
+            queue.addLast(callback);
+        }
+
+        @Override
+        public void dispatchUrgent(Runnable callback) {
+            queue.addFirst(callback);
+        }
+
+        void drain() {
+            Runnable r;
+            while ((r = queue.poll()) != null) {
+                r.run();
+            }
+        }
+    }
+
+    private static final MCT7.Options HIGH = MCT7.Options.builder().priority(MCT7.Priority.HIGH).build();
+
+    @Test
+    public void highPriorityTicksJumpTheMainQueue() {
+        VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+        QueuedMainThread mainThread = new QueuedMainThread();
+        MCT7 mct7 = new MCT7(scheduler, scheduler, mainThread);
+        List<String> events = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            String name = "ui" + i;
+            mct7.cycle(MCT7.INFINITE, 100, 0, "ui", MCT7.Options.DEFAULT, remaining -> events.add(name));
+        }
+        MCT7.CycleTicker heartbeat = remaining -> events.add("heartbeat");
+        mct7.cycle(MCT7.INFINITE, 100, 0, "heartbeat", HIGH, heartbeat);
+
+        scheduler.advanceBy(0);
+        mainThread.drain();
+
+        assertEquals(List.of("heartbeat", "ui0", "ui1", "ui2"), events);
+    }
+
+    @Test
+    public void highPriorityTasksUseTheirOwnLane() {
+        VirtualTimeScheduler normalLane = new VirtualTimeScheduler();
+        VirtualTimeScheduler priorityLane = new VirtualTimeScheduler();
+        MCT7 mct7 = new MCT7(normalLane, priorityLane, normalLane, MCT7.Dispatcher.IMMEDIATE);
+        List<String> events = new ArrayList<>();
+
+        MCT7.DelayedTask normal = () -> events.add("normal");
+        MCT7.DelayedTask urgent = () -> events.add("urgent");
+        mct7.delay(100, "normal", normal);
+        mct7.delay(100, "urgent", HIGH, urgent);
+
+        priorityLane.advanceBy(100);
+        assertEquals(List.of("urgent"), events);
+        normalLane.advanceBy(100);
+        assertEquals(List.of("urgent", "normal"), events);
+    }
+}
@@ -0,0 +1,103 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for debouncers, throttlers and samplers, on virtual time with
+ * actions run inline. Each run records the virtual time it happened at.
+ */
+public class MCT7RateLimiterTest {
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, MCT7.Dispatcher.IMMEDIATE);
+    private final List<Long> runs = new ArrayList<>();
+    private final MCT7.DelayedTask action = () -> runs.add(scheduler.millis());
+
+    /** Trigger every stepMs for durationMs, starting now. */
+    private void triggerEvery(MCT7.RateLimiter limiter, long stepMs, long durationMs) {
+        for (long t = 0; t < durationMs; t += stepMs) {
+            limiter.trigger();
+            scheduler.advanceBy(stepMs);
+        }
+    }
+
+    @Test
+    public void debouncerRunsOnceAfterTheBurstGoesQuiet() {
+        MCT7.RateLimiter debouncer = mct7.debouncer("ui", 100, action);
+
+        triggerEvery(debouncer, 10, 500); // Last trigger at 490
+        scheduler.advanceBy(1_000);
+
+        assertEquals(List.of(590L), runs);
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void throttlerRunsOnLeadingEdgeThenOncePerWindowWithoutLosingTheLast() {
+        MCT7.RateLimiter throttler = mct7.throttler("notification", 100, action);
+
+        triggerEvery(throttler, 10, 250); // Triggers 0..240
+        scheduler.advanceBy(1_000);
+
+        // Leading run at 0, then one per window end while triggers kept coming; the
+        // trigger at 240 runs at 300, and the window after it ends quietly
+        assertEquals(List.of(0L, 100L, 200L, 300L), runs);
+        assertEquals(0, scheduler.pendingCount());
+
+        throttler.trigger(); // Idle again: leading edge right away
+        assertEquals(1_250L, (long) runs.get(runs.size() - 1));
+    }
+
+    @Test
+    public void samplerRunsOnePeriodAfterTheFirstTrigger() {
+        MCT7.RateLimiter sampler = mct7.sampler("sample", 100, action);
+
+        triggerEvery(sampler, 30, 250); // Triggers 0..240
+        scheduler.advanceBy(1_000);
+
+        assertEquals(List.of(100L, 220L, 340L), runs);
+    }
+
+    @Test
+    public void triggersCostNoTimerEntries() {
+        MCT7.RateLimiter throttler = mct7.throttler("hot", 1_000, action);
+        for (int i = 0; i < 10_000; i++) {
+            throttler.trigger();
+        }
+        assertEquals(1, runs.size());
+        assertEquals(1, scheduler.pendingCount()); // One armed window, not one per trigger
+        assertEquals(1, mct7.getActiveTaskCount("hot"));
+    }
+
+    @Test
+    public void cancelByTagStopsALimiterAndLaterTriggersAreIgnored() {
+        MCT7.RateLimiter debouncer = mct7.debouncer("screen", 100, action);
+        debouncer.trigger();
+
+        assertEquals(1, mct7.cancelByTag("screen"));
+        assertTrue(debouncer.isCancelled());
+        debouncer.trigger();
+        scheduler.advanceBy(1_000);
+
+        assertTrue(runs.isEmpty());
+        assertEquals(0, scheduler.pendingCount());
+        assertFalse(debouncer.cancel());
+    }
+
+    @Test
+    public void groupLimitersUseTheGroupNameAndDieWithTheGroup() {
+        MCT7.TaskGroup group = mct7.newGroup("service");
+        MCT7.RateLimiter throttler = group.throttler(null, 100, MCT7.Options.DEFAULT, action);
+        assertEquals(1, mct7.getActiveTaskCount("service"));
+
+        group.cancel();
+        throttler.trigger();
+        assertTrue(runs.isEmpty());
+        assertTrue(group.throttler(null, 100, MCT7.Options.DEFAULT, action).isCancelled());
+    }
+}
@@ -0,0 +1,106 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for in-place reschedule / pause / resume, on virtual time with
+ * callbacks run inline.
+ */
+public class MCT7RescheduleTest {
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, MCT7.Dispatcher.IMMEDIATE);
+    private final List<String> events = new ArrayList<>();
+
+    private final MCT7.CycleTicker ticker = new MCT7.CycleTicker() {
+        @Override
+        public void onTick(int remainingTicks) {
+            events.add(scheduler.millis() + ":" + remainingTicks);
+        }
+
+        @Override
+        public void onComplete() {
+            events.add("done");
+        }
+    };
+
+    @Test
+    public void rescheduleKeepsIdTagAndRemainingTicks() {
+        int id = mct7.cycle(4, 100, 100, "refresh", MCT7.Options.DEFAULT, ticker);
+        scheduler.advanceBy(100);
+
+        assertTrue(mct7.reschedule(id, 30));
+        assertEquals(1, scheduler.pendingCount()); // Old timer gone, one new timer
+        scheduler.advanceBy(90);
+
+        assertEquals(List.of("100:4", "130:3", "160:2", "190:1", "done"), events);
+        assertFalse(mct7.isActive(id));
+        assertEquals(0, mct7.getActiveTaskCount("refresh"));
+    }
+
+    @Test
+    public void rescheduleFromInsideTheTick() {
+        int[] id = new int[1];
+        MCT7.CycleTicker adaptive = remaining -> {
+            events.add(String.valueOf(scheduler.millis()));
+            mct7.reschedule(id[0], 50); // Speed up after the first tick
+        };
+        id[0] = mct7.cycle(MCT7.INFINITE, 200, 200, "adaptive", MCT7.Options.DEFAULT, adaptive);
+
+        scheduler.advanceBy(300);
+
+        assertEquals(List.of("200", "250", "300"), events);
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    @Test
+    public void pauseStopsTicksAndResumeRestartsWithAFullInterval() {
+        int id = mct7.cycle(3, 100, 100, "hb", MCT7.Options.DEFAULT, ticker);
+        scheduler.advanceBy(100);
+
+        assertTrue(mct7.pause(id));
+        assertFalse(mct7.pause(id));
+        assertTrue(mct7.isActive(id));
+        assertTrue(mct7.isPaused(id));
+        assertEquals(0, scheduler.pendingCount());
+        scheduler.advanceBy(1_000);
+        assertEquals(List.of("100:3"), events);
+
+        assertTrue(mct7.resume(id));
+        assertFalse(mct7.resume(id));
+        scheduler.advanceBy(200);
+
+        assertEquals(List.of("100:3", "1200:2", "1300:1", "done"), events);
+    }
+
+    @Test
+    public void rescheduleWhilePausedAppliesOnResume() {
+        int id = mct7.cycle(MCT7.INFINITE, 100, 100, "hb", MCT7.Options.DEFAULT, ticker);
+        mct7.pause(id);
+
+        assertTrue(mct7.reschedule(id, 40));
+        assertEquals(0, scheduler.pendingCount());
+        mct7.resume(id);
+        scheduler.advanceBy(80);
+
+        assertEquals(List.of("40:-1", "80:-1"), events);
+    }
+
+    @Test
+    public void onlyLiveCycleTasksCanBeRetuned() {
+        int delayed = mct7.delay(100, () -> events.add("delayed"));
+        assertFalse(mct7.reschedule(delayed, 50));
+        assertFalse(mct7.pause(delayed));
+
+        int cycle = mct7.cycle(1, 100, ticker);
+        mct7.cancel(cycle);
+        assertFalse(mct7.reschedule(cycle, 50));
+        assertFalse(mct7.resume(cycle));
+        assertFalse(mct7.pause(12345));
+    }
+}
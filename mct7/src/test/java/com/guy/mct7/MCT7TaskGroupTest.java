@@ -0,0 +1,95 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for owner-scoped task groups, on virtual time with callbacks run inline.
+ */
+public class MCT7TaskGroupTest {
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, MCT7.Dispatcher.IMMEDIATE);
+    private final List<String> events = new ArrayList<>();
+
+    /** Anonymous callback that nothing but MCT7 references, like LocationService's heartbeat. */
+    private void cycleUnreferenced(MCT7.TaskGroup group, String name) {
+        MCT7.CycleTicker ticker = remaining -> events.add(name);
+        if (group != null) {
+            group.cycle(MCT7.INFINITE, 100, ticker);
+        } else {
+            mct7.cycle(MCT7.INFINITE, 100, name, ticker);
+        }
+    }
+
+    @Test
+    public void groupKeepsUnreferencedCallbacksAlive() throws InterruptedException {
+        MCT7.TaskGroup group = mct7.newGroup("service");
+        cycleUnreferenced(group, "grouped");
+        cycleUnreferenced(null, "plain");
+
+        // GC is a hint; give it a few chances to clear the plain task's callback
+        for (int i = 0; i < 20 && mct7.getActiveTaskCount() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        scheduler.advanceBy(0); // First ticks are due right away
+
+        assertEquals(List.of("grouped"), events);
+        assertEquals(1, mct7.getActiveTaskCount("service")); // Group name is the default tag
+    }
+
+    @Test
+    public void cancelStopsOnlyTheGroupAndRefusesNewTasks() {
+        MCT7.TaskGroup group = mct7.newGroup("activity");
+        MCT7.CycleTicker other = remaining -> events.add("other");
+        mct7.cycle(MCT7.INFINITE, 100, "other", other);
+        for (int i = 0; i < 3; i++) {
+            cycleUnreferenced(group, "grouped");
+        }
+        group.delay(50, () -> events.add("delayed"));
+        assertEquals(4, group.size());
+
+        assertEquals(4, group.cancel());
+        assertEquals(0, group.size());
+        assertEquals(1, scheduler.pendingCount()); // Their engine entries are gone
+        assertEquals(-1, group.delay(10, () -> events.add("late")));
+
+        scheduler.advanceBy(50);
+        assertEquals(List.of("other"), events);
+    }
+
+    @Test
+    public void pauseAndResumeTheWholeGroup() {
+        MCT7.TaskGroup group = mct7.newGroup("screen");
+        cycleUnreferenced(group, "a");
+        group.pause();
+        cycleUnreferenced(group, "b"); // Joins paused
+        scheduler.advanceBy(500);
+        assertTrue(events.isEmpty());
+        assertEquals(0, scheduler.pendingCount());
+
+        group.resume();
+        scheduler.advanceBy(100);
+        events.sort(null); // Both re-armed for the same instant, in the group's set order
+        assertEquals(List.of("a", "b"), events);
+    }
+
+    @Test
+    public void finishedTasksLeaveTheGroup() {
+        MCT7.TaskGroup group = mct7.newGroup("once");
+        MCT7.CycleTicker ticker = remaining -> events.add("tick " + remaining);
+        group.cycle(2, 100, ticker);
+        group.delay(100, () -> events.add("delayed"));
+        assertEquals(2, group.size());
+
+        scheduler.advanceBy(200);
+
+        assertEquals(0, group.size());
+        assertEquals(List.of("tick 2", "delayed", "tick 1"), events);
+    }
+}
@@ -0,0 +1,108 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the MCT7 tick path.
+ *
+ * Ticks are driven by hand through a fake engine, and the "main thread" runs
+ * dispatches inline, so everything happens on the test thread and can be measured.
+ */
+public class MCT7TickAllocationTest {
+
+    private static final int WARMUP_TICKS = 50_000;
+    private static final int MEASURED_TICKS = 100_000;
+    // One-off noise only: a single object per tick would be over a megabyte
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+
+    /** Engine that never fires on its own; the test calls {@link #tick()} instead. */
+    private static final class ManualEngine implements TimerEngine {
+        Runnable periodic;
+
+        @Override
+        public Handle schedule(Runnable command, long delayMs) {
+            return () -> { };
+        }
+
+        @Override
+        public Handle scheduleWithFixedDelay(Runnable command, long initialDelayMs, long delayMs) {
+            periodic = command;
+            return () -> periodic = null;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        void tick() {
+            periodic.run();
+        }
+    }
+
+    private static final class CountingTicker implements MCT7.CycleTicker {
+        int ticks;
+        int lastRemaining;
+        int completions;
+
+        @Override
+        public void onTick(int remainingTicks) {
+            ticks++;
+            lastRemaining = remainingTicks;
+        }
+
+        @Override
+        public void onComplete() {
+            completions++;
+        }
+    }
+
+    @Test
+    public void steadyStateTickAllocatesNothing() {
+        ManualEngine engine = new ManualEngine();
+        MCT7 mct7 = new MCT7(engine, Runnable::run);
+        CountingTicker ticker = new CountingTicker();
+        mct7.cycle(MCT7.INFINITE, 1000, ticker);
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            engine.tick();
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            engine.tick();
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertEquals(WARMUP_TICKS + MEASURED_TICKS, ticker.ticks);
+        assertTrue("allocated " + allocated + " bytes over " + MEASURED_TICKS + " ticks",
+                allocated <= MAX_ALLOCATED_BYTES);
+    }
+
+    @Test
+    public void finiteCycleDeliversEveryTickThenCompletes() {
+        ManualEngine engine = new ManualEngine();
+        MCT7 mct7 = new MCT7(engine, Runnable::run);
+        CountingTicker ticker = new CountingTicker();
+        mct7.cycle(3, 1000, ticker);
+
+        engine.tick();
+        engine.tick();
+        engine.tick();
+
+        assertEquals(3, ticker.ticks);
+        assertEquals(1, ticker.lastRemaining);
+        assertEquals(1, ticker.completions);
+        assertEquals(0, mct7.getActiveTaskCount());
+        assertNull(engine.periodic);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
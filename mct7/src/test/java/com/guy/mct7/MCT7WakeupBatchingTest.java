@@ -0,0 +1,100 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for tolerance windows: tasks whose windows overlap share one
+ * engine wakeup. Runs on virtual time with callbacks delivered inline.
+ */
+public class MCT7WakeupBatchingTest {
+
+    private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    private final MCT7 mct7 = new MCT7(scheduler, scheduler, MCT7.Dispatcher.IMMEDIATE);
+    private final List<String> events = new ArrayList<>();
+
+    private static MCT7.Options tolerance(long toleranceMs) {
+        return MCT7.Options.builder().toleranceMs(toleranceMs).build();
+    }
+
+    private MCT7.CycleTicker recorder(String name) {
+        return remaining -> events.add(name + "@" + scheduler.millis());
+    }
+
+    @Test
+    public void overlappingWindowsShareOneWakeupInsideBothWindows() {
+        MCT7.CycleTicker heartbeat = recorder("heartbeat");
+        MCT7.CycleTicker ui = recorder("ui");
+        mct7.cycle(1, 10_000, 10_000, "heartbeat", tolerance(1_000), heartbeat); // [10000, 11000]
+        mct7.cycle(1, 10_500, 10_500, "ui", tolerance(1_000), ui);               // [10500, 11500]
+
+        assertEquals(1, scheduler.pendingCount());
+        scheduler.advanceBy(20_000);
+
+        // Intersection is [10500, 11000]: both run at its start
+        assertEquals(List.of("heartbeat@10500", "ui@10500"), events);
+        assertEquals(1, mct7.getWakeupsSaved());
+    }
+
+    @Test
+    public void disjointWindowsKeepTheirOwnWakeups() {
+        MCT7.CycleTicker a = recorder("a");
+        MCT7.CycleTicker b = recorder("b");
+        mct7.cycle(1, 1_000, 1_000, "a", tolerance(100), a);
+        mct7.cycle(1, 2_000, 2_000, "b", tolerance(100), b);
+
+        assertEquals(2, scheduler.pendingCount());
+        scheduler.advanceBy(5_000);
+
+        assertEquals(List.of("a@1000", "b@2000"), events);
+        assertEquals(0, mct7.getWakeupsSaved());
+    }
+
+    @Test
+    public void periodicTasksKeepCoalescingAndStayWithinTolerance() {
+        MCT7.CycleTicker heartbeat = recorder("heartbeat");
+        MCT7.CycleTicker ui = recorder("ui");
+        mct7.cycle(MCT7.INFINITE, 10_000, 0, "heartbeat", tolerance(2_000), heartbeat);
+        mct7.cycle(MCT7.INFINITE, 10_000, 0, "ui", tolerance(2_000), ui);
+
+        scheduler.advanceBy(60_000);
+
+        // Runs at 0, 10000, ... 60000: 7 shared wakeups instead of 14
+        assertEquals(14, events.size());
+        assertEquals(7, mct7.getWakeupsSaved());
+        assertEquals("ui@60000", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void delayedTasksCoalesceAndCancelledMembersDoNotRun() {
+        MCT7.DelayedTask first = () -> events.add("first@" + scheduler.millis());
+        MCT7.DelayedTask second = () -> events.add("second@" + scheduler.millis());
+        MCT7.DelayedTask third = () -> events.add("third@" + scheduler.millis());
+        mct7.delay(1_000, "t", tolerance(500), first);
+        mct7.delay(1_200, "t", tolerance(500), second);
+        int thirdId = mct7.delay(1_300, "t", tolerance(500), third);
+
+        assertTrue(mct7.cancel(thirdId));
+        scheduler.advanceBy(2_000);
+
+        assertEquals(List.of("first@1200", "second@1200"), events);
+        assertEquals(1, mct7.getWakeupsSaved());
+    }
+
+    @Test
+    public void cancellingEveryMemberDisarmsTheWakeup() {
+        MCT7.CycleTicker a = recorder("a");
+        MCT7.CycleTicker b = recorder("b");
+        mct7.cycle(MCT7.INFINITE, 1_000, 1_000, "g", tolerance(500), a);
+        mct7.cycle(MCT7.INFINITE, 1_000, 1_000, "g", tolerance(500), b);
+
+        assertEquals(2, mct7.cancelByTag("g"));
+        assertEquals(0, scheduler.pendingCount());
+        scheduler.advanceBy(5_000);
+        assertTrue(events.isEmpty());
+    }
+}
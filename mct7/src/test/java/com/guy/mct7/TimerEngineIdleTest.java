@@ -0,0 +1,97 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the elastic worker threads: none while idle, up to the
+ * ceiling under bursts, retired again after the idle timeout.
+ */
+public class TimerEngineIdleTest {
+
+    private static final long IDLE_TIMEOUT_MS = 50;
+
+    private static void awaitTrue(String message, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(message, System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void executorStartsOnDemandScalesToCeilingAndParksToZero() throws InterruptedException {
+        ExecutorTimerEngine engine = new ExecutorTimerEngine(3, IDLE_TIMEOUT_MS);
+        try {
+            assertEquals(0, engine.threadCount());
+
+            // Burst: more blocking commands than the ceiling
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(3);
+            for (int i = 0; i < 6; i++) {
+                engine.schedule(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }, 0);
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(3, engine.threadCount());
+            release.countDown();
+
+            awaitTrue("workers should retire when idle", () -> engine.threadCount() == 0);
+
+            // And come back for new work
+            CountDownLatch ran = new CountDownLatch(1);
+            engine.schedule(ran::countDown, 10);
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void executorKeepsOneWorkerWhileADeadlineIsPending() throws InterruptedException {
+        ExecutorTimerEngine engine = new ExecutorTimerEngine(2, IDLE_TIMEOUT_MS);
+        try {
+            CountDownLatch ran = new CountDownLatch(1);
+            engine.schedule(ran::countDown, IDLE_TIMEOUT_MS * 6);
+            Thread.sleep(IDLE_TIMEOUT_MS * 3);
+            assertEquals(1, engine.threadCount());
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void wheelWorkerRetiresWhenIdleAndRestartsOnSchedule() throws InterruptedException {
+        TimingWheelTimerEngine engine = new TimingWheelTimerEngine(MCT7.Clock.MONOTONIC, IDLE_TIMEOUT_MS);
+        try {
+            assertFalse(engine.hasWorker());
+
+            CountDownLatch first = new CountDownLatch(1);
+            engine.schedule(first::countDown, 10);
+            assertTrue(engine.hasWorker());
+            assertTrue(first.await(5, TimeUnit.SECONDS));
+
+            awaitTrue("wheel worker should retire when idle", () -> !engine.hasWorker());
+
+            CountDownLatch second = new CountDownLatch(3);
+            TimerEngine.Handle periodic = engine.scheduleWithFixedDelay(second::countDown, 0, 5);
+            assertTrue(second.await(5, TimeUnit.SECONDS));
+            periodic.cancel();
+
+            awaitTrue("wheel worker should retire after cancel", () -> !engine.hasWorker());
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
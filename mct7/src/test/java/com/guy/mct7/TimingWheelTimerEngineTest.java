@@ -0,0 +1,137 @@
+package com.guy.mct7;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the timing wheel on a clock the test moves by hand: deadlines on
+ * every level, cancellation racing the cascade, fixed-delay spacing, already-due commands.
+ */
+public class TimingWheelTimerEngineTest {
+
+    private static final long START_MS = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong(START_MS);
+    private final TimingWheelTimerEngine engine = new TimingWheelTimerEngine(now::get);
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    /**
+     * Move the clock to START_MS + elapsedMs and wait until the worker has run everything due.
+     * Already-due commands wake the worker; the second one runs on a pass after the first,
+     * so that pass (and whatever it found due) is complete.
+     */
+    private void advanceTo(long elapsedMs) throws InterruptedException {
+        now.set(START_MS + elapsedMs);
+        for (int pass = 0; pass < 2; pass++) {
+            CountDownLatch ran = new CountDownLatch(1);
+            engine.schedule(ran::countDown, 0);
+            assertTrue("worker should drain due commands", ran.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void nothingFiresBeforeItsDeadlineOnAnyLevel() throws InterruptedException {
+        // Level 0 spans 64 ms, level 1 4096 ms, level 2 ~4.4 min: the longer ones cascade down
+        long[] delays = {10, 100, 5_000, 300_000};
+        AtomicInteger[] fired = new AtomicInteger[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            AtomicInteger count = fired[i] = new AtomicInteger();
+            engine.schedule(count::incrementAndGet, delays[i]);
+        }
+        assertEquals(delays.length, engine.pendingCount());
+
+        for (int i = 0; i < delays.length; i++) {
+            advanceTo(delays[i] - 1);
+            assertEquals("fired early: " + delays[i] + " ms", 0, fired[i].get());
+            advanceTo(delays[i]);
+            assertEquals("not fired on time: " + delays[i] + " ms", 1, fired[i].get());
+        }
+        assertEquals(0, engine.pendingCount());
+    }
+
+    @Test
+    public void cancelledBeforeTheCascadeNeverFires() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        TimerEngine.Handle handle = engine.schedule(fired::incrementAndGet, 5_000);
+        engine.schedule(fired::incrementAndGet, 5_000).cancel();
+
+        advanceTo(4_096); // The level-2 bucket has cascaded both down
+        handle.cancel();
+        advanceTo(10_000);
+
+        assertEquals(0, fired.get());
+        assertEquals(0, engine.pendingCount());
+    }
+
+    @Test
+    public void cancelRacingTheCascadeLeavesNothingBehind() throws InterruptedException {
+        int count = 2_000;
+        List<TimerEngine.Handle> handles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            handles.add(engine.schedule(() -> { }, 100 + i * 5L)); // Levels 1 and 2
+        }
+
+        Thread canceller = new Thread(() -> handles.forEach(TimerEngine.Handle::cancel));
+        canceller.start();
+        // Cascade buckets while the entries are being cancelled
+        for (long t = 64; canceller.isAlive(); t += 64) {
+            advanceTo(t);
+        }
+        canceller.join();
+
+        // Every entry was cancelled: none may stay linked in a future bucket
+        assertEquals(0, engine.pendingCount());
+    }
+
+    @Test
+    public void fixedDelayRunsAreSpacedByTheDelay() throws InterruptedException {
+        List<Long> runs = new ArrayList<>();
+        engine.scheduleWithFixedDelay(() -> runs.add(now.get() - START_MS), 0, 100);
+
+        for (long t = 0; t <= 1_000; t += 10) {
+            advanceTo(t);
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (long t = 0; t <= 1_000; t += 100) {
+            expected.add(t);
+        }
+        assertEquals(expected, runs);
+        assertEquals(1, engine.pendingCount());
+    }
+
+    @Test
+    public void alreadyDueCommandRunsOnTheWorkerWithoutTheClockMoving() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(2);
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        Runnable command = () -> {
+            synchronized (threads) {
+                threads.add(Thread.currentThread());
+            }
+            ran.countDown();
+        };
+
+        engine.schedule(command, 0);
+        engine.schedule(command, -5);
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        synchronized (threads) {
+            assertFalse(threads.contains(caller));
+        }
+        assertEquals(START_MS, now.get());
+    }
+}
@@ -0,0 +1,69 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the virtual-time engine: deadline order, fixed delay, and
+ * cancelled commands leaving the queue at once.
+ */
+public class VirtualTimeSchedulerTest {
+
+    private final VirtualTimeScheduler time = new VirtualTimeScheduler();
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void runsInDeadlineOrderThenFifo() {
+        time.schedule(() -> events.add("b"), 20);
+        time.schedule(() -> events.add("a"), 10);
+        time.schedule(() -> events.add("c"), 20);
+
+        time.advanceBy(20);
+
+        assertEquals(List.of("a", "b", "c"), events);
+        assertEquals(20, time.millis());
+    }
+
+    @Test
+    public void fixedDelayIsMeasuredFromEachRun() {
+        List<Long> runs = new ArrayList<>();
+        time.scheduleWithFixedDelay(() -> runs.add(time.millis()), 5, 10);
+
+        time.advanceBy(40);
+
+        assertEquals(List.of(5L, 15L, 25L, 35L), runs);
+        assertEquals(1, time.pendingCount());
+    }
+
+    @Test
+    public void cancelledCommandsLeaveTheQueueAtOnce() {
+        TimerEngine.Handle oneShot = time.schedule(() -> events.add("one-shot"), 10);
+        TimerEngine.Handle periodic = time.scheduleWithFixedDelay(() -> events.add("periodic"), 10, 10);
+        time.schedule(() -> events.add("kept"), 1_000_000);
+
+        oneShot.cancel();
+        periodic.cancel();
+
+        assertEquals(1, time.pendingCount());
+        time.advanceBy(100);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void periodicCommandCanCancelItselfWhileRunning() {
+        TimerEngine.Handle[] self = new TimerEngine.Handle[1];
+        self[0] = time.scheduleWithFixedDelay(() -> {
+            events.add("tick");
+            self[0].cancel();
+        }, 0, 10);
+
+        time.advanceBy(100);
+
+        assertEquals(List.of("tick"), events);
+        assertEquals(0, time.pendingCount());
+    }
+}
@@ -0,0 +1,66 @@
+package com.guy.mct7;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the callback reverse index used by MCT7.cancel(callback).
+ */
+public class WeakIdentityIndexTest {
+
+    /** Two distinct callbacks that are equals() to each other. */
+    private static final class EqualCallback {
+        @Override public boolean equals(Object o) { return o instanceof EqualCallback; }
+        @Override public int hashCode() { return 1; }
+    }
+
+    @Test
+    public void keysAreComparedByIdentity() {
+        WeakIdentityIndex<Integer> index = new WeakIdentityIndex<>();
+        EqualCallback a = new EqualCallback();
+        EqualCallback b = new EqualCallback();
+
+        index.add(a, 1);
+        index.add(a, 2);
+        index.add(b, 3);
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.get(a).size());
+        assertTrue(index.get(b).contains(3));
+        assertFalse(index.get(b).contains(1));
+    }
+
+    @Test
+    public void removingLastValueDropsKey() {
+        WeakIdentityIndex<Integer> index = new WeakIdentityIndex<>();
+        Object callback = new Object();
+
+        index.add(callback, 1);
+        index.remove(callback, 1);
+
+        assertEquals(0, index.size());
+        assertTrue(index.get(callback).isEmpty());
+    }
+
+    @Test
+    public void collectedKeysAreExpunged() throws InterruptedException {
+        WeakIdentityIndex<Integer> index = new WeakIdentityIndex<>();
+        Object kept = new Object();
+        index.add(kept, 0);
+        addUnreachable(index);
+
+        // GC is a hint; give it a few chances to clear the weak key
+        for (int i = 0; i < 20 && index.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, index.size());
+        assertEquals(1, index.get(kept).size());
+    }
+
+    private static void addUnreachable(WeakIdentityIndex<Integer> index) {
+        index.add(new Object(), 1);
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Class26A-Ands-2"
 include(":app")
+include(":mct7")